@@ -0,0 +1,125 @@
+package com.bht.ludonova.service;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode throughput of RAWG search and game details responses: the previous path, which
+ * joined the body into a String and re-registered the ObjectMapper modules on every call,
+ * against {@link RawgService#decode} reading the response buffers with a prebuilt reader.
+ * The payloads under {@code rawg/} have the shape and size of real RAWG responses and are
+ * split into the 8 KiB buffers the HTTP client hands over. Run with {@code mvn -Pbenchmark test}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RawgDecodeBenchmark {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader searchReader;
+    private ObjectReader gameReader;
+    private List<byte[]> searchChunks;
+    private List<byte[]> gameChunks;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configured like the application's mapper: Java time support, unknown properties ignored
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        searchReader = RawgService.reader(objectMapper, RawgSearchResponseDTO.class);
+        gameReader = RawgService.reader(objectMapper, RawgGameDTO.class);
+        searchChunks = chunks(load("rawg/search-response.json"));
+        gameChunks = chunks(load("rawg/game-details.json"));
+    }
+
+    @Benchmark
+    public RawgSearchResponseDTO searchViaString() throws IOException {
+        return objectMapper.findAndRegisterModules().readValue(asString(searchChunks), RawgSearchResponseDTO.class);
+    }
+
+    @Benchmark
+    public RawgSearchResponseDTO searchFromBuffers() {
+        return RawgService.<RawgSearchResponseDTO>decode(body(searchChunks), searchReader, "search results").block();
+    }
+
+    @Benchmark
+    public RawgGameDTO gameDetailsViaString() throws IOException {
+        return objectMapper.findAndRegisterModules().readValue(asString(gameChunks), RawgGameDTO.class);
+    }
+
+    @Benchmark
+    public RawgGameDTO gameDetailsFromBuffers() {
+        return RawgService.<RawgGameDTO>decode(body(gameChunks), gameReader, "game details").block();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+
+    private Flux<DataBuffer> body(List<byte[]> chunks) {
+        return Flux.fromIterable(chunks).map(bufferFactory::wrap);
+    }
+
+    // What bodyToMono(String.class) did: join the buffers and decode them as UTF-8
+    private static String asString(List<byte[]> chunks) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        chunks.forEach(body::writeBytes);
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] load(String resource) throws IOException {
+        try (InputStream input = RawgDecodeBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IOException("Missing benchmark payload " + resource);
+            }
+            return input.readAllBytes();
+        }
+    }
+
+    private static List<byte[]> chunks(byte[] payload) {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int from = 0; from < payload.length; from += BUFFER_SIZE) {
+            chunks.add(Arrays.copyOfRange(payload, from, Math.min(payload.length, from + BUFFER_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,90 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.PostgresContainerTest;
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times the sync of a synthetic 10k-game library against PostgreSQL: the first sync of the
+ * whole library, a resync with nothing changed and a resync after a tenth of the games were
+ * played. Each round starts from an empty catalog; the first rounds only warm up the JIT and
+ * the connection pool. Run with {@code mvn -Pbenchmark test}.
+ */
+@Slf4j
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = SteamLibrarySyncTestConfiguration.class)
+class SteamLibrarySyncBenchmark extends PostgresContainerTest {
+    private static final int LIBRARY_SIZE = 10_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private SteamLibrarySyncEngine syncEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void syncTenThousandGameLibrary() {
+        List<SteamGamesResponseDTO.Game> library = SteamLibraryFixtures.library(LIBRARY_SIZE);
+        List<SteamGamesResponseDTO.Game> played = SteamLibraryFixtures.playedEvery(library, 10, 30);
+        LongSummaryStatistics initial = new LongSummaryStatistics();
+        LongSummaryStatistics unchanged = new LongSummaryStatistics();
+        LongSummaryStatistics changed = new LongSummaryStatistics();
+
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean measured = round >= WARMUP_ROUNDS;
+            Long userId = SteamLibraryFixtures.resetAndCreateUser(jdbcTemplate);
+
+            SteamSyncResult result = timed(measured ? initial : null, () -> sync(userId, library));
+            assertThat(result.getCreated()).isEqualTo(LIBRARY_SIZE);
+
+            result = timed(measured ? unchanged : null, () -> sync(userId, library));
+            assertThat(result.getUnchanged()).isEqualTo(LIBRARY_SIZE);
+
+            result = timed(measured ? changed : null, () -> sync(userId, played));
+            assertThat(result.getUpdated()).isEqualTo(LIBRARY_SIZE / 10);
+        }
+
+        log.info("Steam sync of {} games over {} rounds (min / avg / max ms):", LIBRARY_SIZE, MEASURED_ROUNDS);
+        report("first sync", initial);
+        report("unchanged resync", unchanged);
+        report("10% changed resync", changed);
+    }
+
+    private SteamSyncResult sync(Long userId, List<SteamGamesResponseDTO.Game> library) {
+        return syncEngine.sync(userId, Flux.fromIterable(library), SteamSyncProgress.NONE);
+    }
+
+    private static SteamSyncResult timed(LongSummaryStatistics stats, Supplier<SteamSyncResult> sync) {
+        long start = System.nanoTime();
+        SteamSyncResult result = sync.get();
+        if (stats != null) {
+            stats.accept((System.nanoTime() - start) / 1_000_000);
+        }
+        return result;
+    }
+
+    private static void report(String phase, LongSummaryStatistics stats) {
+        log.info("  {}: {} / {} / {}", phase, stats.getMin(), Math.round(stats.getAverage()), stats.getMax());
+    }
+}
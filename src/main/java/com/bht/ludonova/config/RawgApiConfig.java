@@ -1,5 +1,6 @@
 package com.bht.ludonova.config;
 
+import com.bht.ludonova.service.RawgRateLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -17,10 +18,11 @@ public class RawgApiConfig {
     private String baseUrl;
 
     @Bean
-    public WebClient rawgWebClient() {
+    public WebClient rawgWebClient(RawgRateLimiter rateLimiter) {
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .defaultHeader("User-Agent", "LudoNova")
+                .filter(rateLimiter.filter())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.bht.ludonova.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class SteamLoginConfig {
+
+    @Value("${steam.login.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${steam.login.pending-acquire-max:200}")
+    private int pendingAcquireMax;
+
+    @Value("${steam.login.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${steam.login.response-timeout:PT5S}")
+    private Duration responseTimeout;
+
+    /**
+     * Connector for calls on the Steam login path (OpenID verification and player summaries).
+     * It has its own bounded pool and hard timeouts, so a slow Steam endpoint fails logins
+     * quickly instead of piling up connections shared with the rest of the application.
+     */
+    @Bean
+    public ReactorClientHttpConnector steamLoginConnector() {
+        ConnectionProvider provider = ConnectionProvider.builder("steam-login")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bht.ludonova.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SteamSyncConfig {
+
+    @Value("${steam.sync.executor.threads:2}")
+    private int threads;
+
+    @Value("${steam.sync.executor.queue-capacity:20}")
+    private int queueCapacity;
+
+    /**
+     * Dedicated pool for library syncs. It is kept small and its queue bounded so a burst of
+     * sync requests is rejected instead of competing with request threads for DB connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor steamSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("steam-sync-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -39,7 +39,8 @@ public class WebConfig {
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
-            "Authorization"
+            "Authorization",
+            "X-Enrichment-Status"
         ));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
@@ -0,0 +1,78 @@
+package com.bht.ludonova.controller;
+
+import com.bht.ludonova.dto.ErrorResponse;
+import com.bht.ludonova.dto.game.DuplicateGameDTO;
+import com.bht.ludonova.dto.game.GameDumpImportStatusDTO;
+import com.bht.ludonova.dto.game.GameMergeReportDTO;
+import com.bht.ludonova.service.catalog.GameDumpImportService;
+import com.bht.ludonova.service.catalog.GameDuplicateMergeService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/games")
+@RequiredArgsConstructor
+@Tag(name = "Game Administration", description = "Catalog maintenance endpoints for admins")
+public class AdminGameController {
+    private final GameDuplicateMergeService mergeService;
+    private final GameDumpImportService dumpImportService;
+
+    // Preview the Steam rows that would be merged into an existing game
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<DuplicateGameDTO>> getDuplicates(@RequestParam(defaultValue = "100") int limit) {
+        List<DuplicateGameDTO> duplicates = mergeService.findDuplicates(limit).stream()
+                .map(pair -> new DuplicateGameDTO(pair.getDuplicateId(), pair.getCanonicalId(), pair.getTitle()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(duplicates);
+    }
+
+    @PostMapping("/merge-duplicates")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> mergeDuplicates(@RequestParam(defaultValue = "500") int limit) {
+        try {
+            GameMergeReportDTO report = mergeService.mergeDuplicates(limit);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            log.error("Error merging duplicate games", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("MERGE_FAILED", e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value()));
+        }
+    }
+
+    // Starts an import of a RAWG dump file from catalog.dump.directory, progress is polled below
+    @PostMapping("/import-dump")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> importDump(@RequestParam String file) {
+        try {
+            GameDumpImportStatusDTO status = dumpImportService.startImport(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("DUMP_NOT_FOUND", e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("IMPORT_RUNNING", e.getMessage(), HttpStatus.CONFLICT.value()));
+        }
+    }
+
+    @GetMapping("/import-dump")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<GameDumpImportStatusDTO> getDumpImportStatus() {
+        return dumpImportService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,23 +1,35 @@
 package com.bht.ludonova.controller;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.bht.ludonova.dto.ErrorResponse;
+import com.bht.ludonova.dto.game.GameSuggestionDTO;
 import com.bht.ludonova.model.Game;
 import com.bht.ludonova.service.GameService;
+import com.bht.ludonova.service.SearchQueryLog;
+import com.bht.ludonova.service.catalog.GameSuggestIndex;
+import com.bht.ludonova.service.catalog.GenreFacetIndex;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/games")
 @RequiredArgsConstructor
 @Tag(name = "Games", description = "API for accessing game information")
 public class GameController {
+    private static final String ENRICHMENT_STATUS_HEADER = "X-Enrichment-Status";
+
     private final GameService gameService;
+    private final SearchQueryLog searchQueryLog;
+    private final GameSuggestIndex suggestIndex;
+    private final GenreFacetIndex genreFacetIndex;
 
     @GetMapping("/count")
     @PreAuthorize("isAuthenticated()")
@@ -25,12 +37,76 @@ public class GameController {
         return ResponseEntity.ok(gameService.getGameCount());
     }
 
+    /**
+     * Returns local matches right away. {@code X-Enrichment-Status: pending} means RAWG is
+     * still being searched in the background and repeating the request may return more games.
+     * Browsing without a query can be filtered by genre like {@link #getGenreFacets}.
+     */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public Page<Game> searchGames(
+    public ResponseEntity<?> searchGames(
             @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "") List<String> all,
+            @RequestParam(defaultValue = "") List<String> any,
             @PageableDefault(size = 20) Pageable pageable) {
-        return gameService.searchGames(query, pageable);
+        if (awaitsGenreIndex(all, any)) {
+            return facetsLoading();
+        }
+        GameService.SearchResult result = gameService.searchGames(query, pageable, all, any);
+        if (query != null && !query.isBlank()) {
+            searchQueryLog.record(query, !result.isEnrichmentPending());
+        }
+        return ResponseEntity.ok()
+                .header(ENRICHMENT_STATUS_HEADER, result.isEnrichmentPending() ? "pending" : "complete")
+                .body(result.getGames());
+    }
+
+    /**
+     * Cursor-paginated browsing and search, best rated first. Pass {@code nextCursor} of the
+     * response as {@code cursor} to get the following page; {@code includeTotal} adds an
+     * estimated match count. Genre filters work like {@link #getGenreFacets}; with them a
+     * page may hold fewer games than requested while {@code nextCursor} is still set.
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> scrollGames(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "") List<String> all,
+            @RequestParam(defaultValue = "") List<String> any) {
+        if (awaitsGenreIndex(all, any)) {
+            return facetsLoading();
+        }
+        return ResponseEntity.ok(gameService.scrollGames(query, cursor, size, includeTotal, all, any));
+    }
+
+    /**
+     * Autocomplete for the search box, served from memory without touching the database or
+     * RAWG. Matches titles with a word starting with the query, best rated and most collected first.
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<GameSuggestionDTO>> suggestGames(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestIndex.suggest(query, limit));
+    }
+
+    /**
+     * Genre facet counts for a facet sidebar. {@code all} genres are required, at least one of
+     * the {@code any} genres must match; counts cover the games matching both.
+     */
+    @GetMapping("/facets")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getGenreFacets(
+            @RequestParam(defaultValue = "") List<String> all,
+            @RequestParam(defaultValue = "") List<String> any) {
+        if (!genreFacetIndex.isReady()) {
+            return facetsLoading();
+        }
+        return ResponseEntity.ok(genreFacetIndex.facets(all, any));
     }
 
     @GetMapping("/{id}")
@@ -40,4 +116,14 @@ public class GameController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    private boolean awaitsGenreIndex(List<String> all, List<String> any) {
+        return GenreFacetIndex.hasGenres(all, any) && !genreFacetIndex.isReady();
+    }
+
+    private static ResponseEntity<ErrorResponse> facetsLoading() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("FACETS_LOADING", "Genre facets are still being indexed",
+                        HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
 }
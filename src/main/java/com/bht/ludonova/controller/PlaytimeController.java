@@ -0,0 +1,60 @@
+package com.bht.ludonova.controller;
+
+import com.bht.ludonova.dto.ErrorResponse;
+import com.bht.ludonova.model.User;
+import com.bht.ludonova.model.enums.PlaytimeGranularity;
+import com.bht.ludonova.service.PlaytimeService;
+import com.bht.ludonova.service.UserService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/playtime")
+@RequiredArgsConstructor
+@Tag(name = "Playtime", description = "Playtime history recorded from Steam syncs")
+public class PlaytimeController {
+    private final PlaytimeService playtimeService;
+    private final UserService userService;
+
+    // The current user's playtime per day or week, optionally for a single game
+    @GetMapping("/trend")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getMyTrend(
+            @RequestParam(defaultValue = "DAY") PlaytimeGranularity granularity,
+            @RequestParam(required = false) Long gameId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            User user = userService.getCurrentUser();
+            return ResponseEntity.ok(playtimeService.getUserTrend(user.getId(), gameId, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ErrorResponse("INVALID_RANGE", e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+        }
+    }
+
+    // Playtime of all users on one game per day or week
+    @GetMapping("/games/{gameId}/trend")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getGameTrend(
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "DAY") PlaytimeGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(playtimeService.getGameTrend(gameId, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ErrorResponse("INVALID_RANGE", e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -27,6 +28,9 @@ public class SteamAuthController {
     @Value("${steam.realm.url}")
     private String realmUrl;
 
+    @Value("${steam.openid.url:https://steamcommunity.com/openid/login}")
+    private String openIdUrl;
+
     public SteamAuthController(AuthenticationService authService) {
         this.authService = authService;
     }
@@ -43,10 +47,10 @@ public class SteamAuthController {
     }
 
     @GetMapping("/return")
-    public ResponseEntity<AuthenticationResponse> steamReturn(@RequestParam Map<String, String> params) {
+    public Mono<ResponseEntity<AuthenticationResponse>> steamReturn(@RequestParam Map<String, String> params) {
         log.debug("Received Steam return params: {}", params);
-        AuthenticationResponse response = authService.authenticate("steam", params);
-        return ResponseEntity.ok(response);
+        // Completes asynchronously, the servlet thread is released while Steam is being called
+        return authService.authenticateSteam(params).map(ResponseEntity::ok);
     }
 
     private String buildSteamOpenIdUrl() {
@@ -55,13 +59,14 @@ public class SteamAuthController {
             String encodedRealm = URLEncoder.encode(realmUrl, StandardCharsets.UTF_8);
 
             return String.format(
-                    "https://steamcommunity.com/openid/login" +
+                    "%s" +
                             "?openid.ns=%s" +
                             "&openid.mode=checkid_setup" +
                             "&openid.return_to=%s" +
                             "&openid.realm=%s" +
                             "&openid.identity=%s" +
                             "&openid.claimed_id=%s",
+                    openIdUrl,
                     URLEncoder.encode("http://specs.openid.net/auth/2.0", StandardCharsets.UTF_8),
                     encodedReturnUrl,
                     encodedRealm,
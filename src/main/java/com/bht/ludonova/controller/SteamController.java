@@ -1,19 +1,26 @@
 package com.bht.ludonova.controller;
 
+import com.bht.ludonova.dto.ErrorResponse;
 import com.bht.ludonova.dto.gameInstance.GameInstanceResponseDTO;
 import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import com.bht.ludonova.dto.steam.SteamSyncJobDTO;
 import com.bht.ludonova.mapper.GameInstanceMapper;
 import com.bht.ludonova.model.GameInstance;
 import com.bht.ludonova.model.User;
 import com.bht.ludonova.service.SteamService;
 import com.bht.ludonova.service.UserService;
+import com.bht.ludonova.service.steam.SteamSyncJob;
+import com.bht.ludonova.service.steam.SteamSyncJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -25,11 +32,12 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class SteamController {
     private final SteamService steamService;
+    private final SteamSyncJobService steamSyncJobService;
     private final UserService userService;
     private final GameInstanceMapper gameInstanceMapper;
 
     @PostMapping("/sync")
-    public ResponseEntity<Void> syncSteamLibrary() {
+    public ResponseEntity<?> syncSteamLibrary() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null) {
             log.error("No authentication found in security context");
@@ -43,8 +51,23 @@ public class SteamController {
         }
 
         log.info("Received request to sync Steam library for user: {}", user.getUsername());
-        steamService.syncSteamLibrary(user);
-        return ResponseEntity.ok().build();
+        try {
+            SteamSyncJob job = steamSyncJobService.submit(user);
+            return ResponseEntity.accepted().body(steamSyncJobService.toDTO(job));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("SYNC_QUEUE_FULL", "Too many Steam syncs in progress, please retry later",
+                            HttpStatus.SERVICE_UNAVAILABLE.value()));
+        }
+    }
+
+    @GetMapping("/sync/{jobId}")
+    public ResponseEntity<SteamSyncJobDTO> getSyncJob(@PathVariable String jobId) {
+        User user = userService.getCurrentUser();
+        return steamSyncJobService.findJob(jobId, user.getId())
+                .map(job -> ResponseEntity.ok(steamSyncJobService.toDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/library")
@@ -0,0 +1,12 @@
+package com.bht.ludonova.dto.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DuplicateGameDTO {
+    private Long duplicateId;
+    private Long canonicalId;
+    private String title;
+}
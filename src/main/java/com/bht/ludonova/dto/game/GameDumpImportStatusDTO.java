@@ -0,0 +1,20 @@
+package com.bht.ludonova.dto.game;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class GameDumpImportStatusDTO {
+    private String file;
+    private String state;
+    private long recordsRead;
+    private long gamesImported;
+    private long recordsSkipped;
+    private long invalidRecords;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.bht.ludonova.dto.game;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class GameMergeReportDTO {
+    private int candidates;
+    private int merged;
+    private int failed;
+    private long durationMs;
+}
@@ -0,0 +1,17 @@
+package com.bht.ludonova.dto.game;
+
+import com.bht.ludonova.model.Game;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class GameScrollDTO {
+    private List<Game> games;
+    // Pass back as cursor for the next page, null on the last page
+    private String nextCursor;
+    // Planner estimate of all matches, only when requested
+    private Long estimatedTotal;
+}
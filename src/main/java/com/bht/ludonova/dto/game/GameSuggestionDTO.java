@@ -0,0 +1,11 @@
+package com.bht.ludonova.dto.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GameSuggestionDTO {
+    private Long id;
+    private String title;
+}
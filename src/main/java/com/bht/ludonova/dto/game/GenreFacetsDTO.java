@@ -0,0 +1,15 @@
+package com.bht.ludonova.dto.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class GenreFacetsDTO {
+    // Games matching the genre filter
+    private long matchCount;
+    // Matching games per genre, most frequent first
+    private Map<String, Long> genreCounts;
+}
@@ -0,0 +1,27 @@
+package com.bht.ludonova.dto.playtime;
+
+import com.bht.ludonova.model.enums.PlaytimeGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class PlaytimeTrendDTO {
+    private PlaytimeGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private Long gameId;
+    private long totalMinutes;
+    private List<Point> points;
+
+    @Data
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate periodStart;
+        private long minutes;
+    }
+}
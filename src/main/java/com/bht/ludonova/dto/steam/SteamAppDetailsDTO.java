@@ -0,0 +1,51 @@
+package com.bht.ludonova.dto.steam;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One entry of the Steam store {@code /api/appdetails} response, which is keyed by app id.
+ */
+@Data
+public class SteamAppDetailsDTO {
+    private boolean success;
+    private AppData data;
+
+    @Data
+    public static class AppData {
+        private String name;
+
+        @JsonProperty("short_description")
+        private String shortDescription;
+
+        @JsonProperty("header_image")
+        private String headerImage;
+
+        @JsonProperty("release_date")
+        private ReleaseDate releaseDate;
+
+        private List<Genre> genres;
+        private Metacritic metacritic;
+    }
+
+    @Data
+    public static class ReleaseDate {
+        @JsonProperty("coming_soon")
+        private boolean comingSoon;
+
+        private String date;
+    }
+
+    @Data
+    public static class Genre {
+        private String id;
+        private String description;
+    }
+
+    @Data
+    public static class Metacritic {
+        private Integer score;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bht.ludonova.dto.steam;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class SteamSyncJobDTO {
+    private String jobId;
+    private String phase;
+    private Integer totalGames;
+    private int processed;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long durationMs;
+    private String error;
+}
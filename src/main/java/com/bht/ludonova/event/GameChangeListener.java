@@ -0,0 +1,90 @@
+package com.bht.ludonova.event;
+
+import com.bht.ludonova.model.Game;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JPA entity listener that turns changes made through {@code GameRepository} into
+ * {@link GamesChangedEvent}s. Bulk JDBC writers publish the event themselves.
+ * <p>
+ * Within a transaction the ids are collected and published as one event once it has
+ * committed, so a {@code saveAll} of N games costs each index one refresh, not N.
+ */
+@Component
+public class GameChangeListener {
+    private static final Object PENDING_CHANGES_KEY = new Object();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GameChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Game game) {
+        pendingChanges().ifPresentOrElse(
+                pending -> pending.upsertedIds.add(game.getId()),
+                () -> eventPublisher.publishEvent(GamesChangedEvent.upserted(List.of(game.getId()))));
+    }
+
+    @PostRemove
+    public void onRemoved(Game game) {
+        pendingChanges().ifPresentOrElse(
+                pending -> pending.removedIds.add(game.getId()),
+                () -> eventPublisher.publishEvent(GamesChangedEvent.removed(List.of(game.getId()))));
+    }
+
+    // The current transaction's collected changes, or empty outside a transaction
+    private Optional<PendingChanges> pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return Optional.of(pending);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Set<Long> upsertedIds = new HashSet<>();
+        private final Set<Long> removedIds = new HashSet<>();
+
+        // An inner REQUIRES_NEW transaction collects its own changes
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(PENDING_CHANGES_KEY);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, this);
+        }
+
+        // Synchronization is already cleared here, so the AFTER_COMMIT listeners run right away
+        // instead of registering with a transaction that has finished
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+            if (status != STATUS_COMMITTED || (upsertedIds.isEmpty() && removedIds.isEmpty())) {
+                return;
+            }
+            upsertedIds.removeAll(removedIds);
+            eventPublisher.publishEvent(new GamesChangedEvent(Set.copyOf(upsertedIds), Set.copyOf(removedIds)));
+        }
+    }
+}
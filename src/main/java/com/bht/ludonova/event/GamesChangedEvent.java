@@ -0,0 +1,24 @@
+package com.bht.ludonova.event;
+
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever rows in {@code games} are inserted, updated or deleted, so in-memory
+ * catalog indexes can follow along once the transaction has committed.
+ */
+@Value
+public class GamesChangedEvent {
+    Set<Long> upsertedIds;
+    Set<Long> removedIds;
+
+    public static GamesChangedEvent upserted(Collection<Long> gameIds) {
+        return new GamesChangedEvent(Set.copyOf(gameIds), Set.of());
+    }
+
+    public static GamesChangedEvent removed(Collection<Long> gameIds) {
+        return new GamesChangedEvent(Set.of(), Set.copyOf(gameIds));
+    }
+}
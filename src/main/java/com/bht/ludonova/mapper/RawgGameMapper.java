@@ -0,0 +1,80 @@
+package com.bht.ludonova.mapper;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.model.Game;
+import com.bht.ludonova.model.enums.GameSource;
+
+@Component
+public class RawgGameMapper {
+    private static final int MAX_SLUG_LENGTH = 255;
+
+    public Game toNewGame(RawgGameDTO rawgGame) {
+        return Game.builder()
+                .title(rawgGame.getName())
+                .apiId(rawgGame.getId().toString())
+                .source(GameSource.RAWG)
+                .releaseDate(rawgGame.getReleaseDate())
+                .backgroundImage(rawgGame.getBackgroundImage())
+                .rating(rawgGame.getRating())
+                .slug(generateSlug(rawgGame.getName()))
+                .genres(genreNames(rawgGame))
+                .description(rawgGame.getDescription())
+                .rawgLastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    public Game applyTo(Game existing, RawgGameDTO rawgGame) {
+        // The slug stays as first stored: it may carry an id suffix against a collision, and
+        // rewriting it from a renamed title could collide with another game
+        existing.setTitle(rawgGame.getName());
+        existing.setRating(rawgGame.getRating());
+        existing.setBackgroundImage(rawgGame.getBackgroundImage());
+        // Replacing the collection rewrites every genre row, so only do it on a real change
+        Set<String> genres = genreNames(rawgGame);
+        if (!genres.equals(existing.getGenres())) {
+            existing.setGenres(genres);
+        }
+        // Search summaries carry no description, keep the one from an earlier detail fetch
+        if (rawgGame.getDescription() != null) {
+            existing.setDescription(rawgGame.getDescription());
+        }
+        existing.setRawgLastUpdated(LocalDateTime.now());
+        return existing;
+    }
+
+    private static Set<String> genreNames(RawgGameDTO rawgGame) {
+        if (rawgGame.getGenres() == null) {
+            return new HashSet<>();
+        }
+        return rawgGame.getGenres().stream()
+                .map(RawgGameDTO.Genre::getName)
+                .collect(Collectors.toSet());
+    }
+
+    public static String generateSlug(String title) {
+        if (title == null) return "";
+        return title.toLowerCase()
+                .replaceAll("[^a-z0-9\\s-]", "")
+                .replaceAll("\\s+", "-")
+                .replaceAll("-+", "-")
+                .trim();
+    }
+
+    /**
+     * The slug with the RAWG id appended, for titles whose plain slug is already taken. Same
+     * form as the dump import gives colliding slugs.
+     */
+    public static String qualifySlug(String slug, String apiId) {
+        if (slug.isEmpty()) {
+            return "rawg-" + apiId;
+        }
+        int maxBase = MAX_SLUG_LENGTH - 1 - apiId.length();
+        return (slug.length() > maxBase ? slug.substring(0, maxBase) : slug) + "-" + apiId;
+    }
+}
@@ -1,8 +1,10 @@
 package com.bht.ludonova.model;
 
+import com.bht.ludonova.event.GameChangeListener;
 import com.bht.ludonova.model.enums.GameSource;
 import com.bht.ludonova.model.enums.Platform;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -19,6 +21,8 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "games")
+@DynamicUpdate
+@EntityListeners(GameChangeListener.class)
 public class Game {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -57,4 +61,7 @@ public class Game {
 
     @Column(columnDefinition = "TEXT")
     private String description;
+
+    @Column(name = "metadata_enriched_at")
+    private LocalDateTime metadataEnrichedAt;
 }
@@ -0,0 +1,6 @@
+package com.bht.ludonova.model.enums;
+
+public enum PlaytimeGranularity {
+    DAY,
+    WEEK
+}
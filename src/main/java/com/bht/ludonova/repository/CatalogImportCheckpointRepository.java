@@ -0,0 +1,68 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checkpoints of the background catalog import. A checkpoint is written after every page,
+ * so an import interrupted by a restart resumes at the page it had reached.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogImportCheckpointRepository {
+    private static final String SELECT_ALL = """
+            SELECT tier, next_page, last_api_id, imported_count, completed_at IS NOT NULL AS completed
+            FROM catalog_import_checkpoints
+            """;
+
+    private static final String UPSERT = """
+            INSERT INTO catalog_import_checkpoints (tier, next_page, last_api_id, imported_count, completed_at, updated_at)
+            VALUES (:tier, :nextPage, :lastApiId, :importedCount, CASE WHEN :completed THEN now() END, now())
+            ON CONFLICT (tier) DO UPDATE
+            SET next_page = EXCLUDED.next_page,
+                last_api_id = EXCLUDED.last_api_id,
+                imported_count = EXCLUDED.imported_count,
+                completed_at = COALESCE(catalog_import_checkpoints.completed_at, EXCLUDED.completed_at),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<String, Checkpoint> findAll() {
+        Map<String, Checkpoint> checkpoints = new HashMap<>();
+        jdbcTemplate.query(SELECT_ALL, rs -> {
+            String tier = rs.getString("tier");
+            checkpoints.put(tier, new Checkpoint(tier, rs.getInt("next_page"), rs.getString("last_api_id"),
+                    rs.getInt("imported_count"), rs.getBoolean("completed")));
+        });
+        return checkpoints;
+    }
+
+    public void save(Checkpoint checkpoint) {
+        jdbcTemplate.update(UPSERT, new MapSqlParameterSource()
+                .addValue("tier", checkpoint.getTier())
+                .addValue("nextPage", checkpoint.getNextPage())
+                .addValue("lastApiId", checkpoint.getLastApiId())
+                .addValue("importedCount", checkpoint.getImportedCount())
+                .addValue("completed", checkpoint.isCompleted()));
+    }
+
+    @Value
+    public static class Checkpoint {
+        String tier;
+        int nextPage;
+        String lastApiId;
+        int importedCount;
+        boolean completed;
+
+        public static Checkpoint start(String tier) {
+            return new Checkpoint(tier, 1, null, 0, false);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bht.ludonova.repository;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.mapper.RawgGameMapper;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads RAWG dump records with PostgreSQL {@code COPY}. Each chunk is copied into
+ * session-local staging tables and merged into {@code games} and {@code game_genres} by a
+ * single statement, so the cost per game is a few bytes on the wire rather than a round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameDumpImportRepository {
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_API_ID_LENGTH = 100;
+    private static final int MAX_IMAGE_LENGTH = 512;
+    private static final int MAX_GENRE_LENGTH = 50;
+
+    // Temp tables live as long as the pooled connection, their rows only until commit
+    private static final String CREATE_STAGING_TABLES = """
+            CREATE TEMP TABLE IF NOT EXISTS staging_games (
+                api_id VARCHAR(100), title VARCHAR(255), slug VARCHAR(255), description TEXT,
+                release_date DATE, background_image VARCHAR(512), rating DOUBLE PRECISION
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS staging_game_genres (
+                api_id VARCHAR(100), genre VARCHAR(50)
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_GAMES =
+            "COPY staging_games (api_id, title, slug, description, release_date, background_image, rating) FROM STDIN (FORMAT csv)";
+
+    private static final String COPY_GENRES = "COPY staging_game_genres (api_id, genre) FROM STDIN (FORMAT csv)";
+
+    // Slugs already taken, or repeated within the chunk, get the RAWG id appended
+    private static final String MERGE = """
+            WITH candidates AS (
+                SELECT DISTINCT ON (s.api_id) s.*
+                FROM staging_games s
+                WHERE NOT EXISTS (SELECT 1 FROM games g WHERE g.source = 'RAWG' AND g.api_id = s.api_id)
+                ORDER BY s.api_id
+            ),
+            slugged AS (
+                SELECT c.*,
+                       CASE
+                           WHEN row_number() OVER (PARTITION BY c.slug ORDER BY c.api_id) > 1
+                               OR EXISTS (SELECT 1 FROM games g WHERE g.slug = c.slug)
+                               THEN left(c.slug, 254 - length(c.api_id)) || '-' || c.api_id
+                           ELSE c.slug
+                       END AS unique_slug
+                FROM candidates c
+            ),
+            inserted AS (
+                INSERT INTO games (title, slug, api_id, source, description, release_date, background_image,
+                                   rating, rawg_last_updated)
+                SELECT title, unique_slug, api_id, 'RAWG', description, release_date, background_image, rating, now()
+                FROM slugged
+                ON CONFLICT DO NOTHING
+                RETURNING id, api_id
+            ),
+            genres AS (
+                INSERT INTO game_genres (game_id, genre)
+                SELECT DISTINCT i.id, sg.genre
+                FROM inserted i
+                JOIN staging_game_genres sg ON sg.api_id = i.api_id
+                ON CONFLICT DO NOTHING
+            )
+            SELECT id FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Copies and merges one chunk of records in a single transaction. Records whose RAWG id is
+     * already stored are skipped.
+     *
+     * @return ids of the games inserted
+     */
+    @Transactional
+    public List<Long> importChunk(List<RawgGameDTO> games) {
+        if (games.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder gameRows = new StringBuilder();
+        StringBuilder genreRows = new StringBuilder();
+        for (RawgGameDTO game : games) {
+            String apiId = truncate(game.getId().toString(), MAX_API_ID_LENGTH);
+            appendRow(gameRows, apiId,
+                    truncate(game.getName(), MAX_TITLE_LENGTH),
+                    truncate(RawgGameMapper.generateSlug(game.getName()), MAX_TITLE_LENGTH),
+                    game.getDescription(),
+                    game.getReleaseDate() != null ? game.getReleaseDate().toString() : null,
+                    truncate(game.getBackgroundImage(), MAX_IMAGE_LENGTH),
+                    game.getRating() != null ? game.getRating().toString() : null);
+            if (game.getGenres() != null) {
+                for (RawgGameDTO.Genre genre : game.getGenres()) {
+                    if (genre.getName() != null) {
+                        appendRow(genreRows, apiId, truncate(genre.getName(), MAX_GENRE_LENGTH));
+                    }
+                }
+            }
+        }
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLES);
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn(COPY_GAMES, new StringReader(gameRows.toString()));
+                if (genreRows.length() > 0) {
+                    copyManager.copyIn(COPY_GENRES, new StringReader(genreRows.toString()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            List<Long> inserted = new ArrayList<>();
+            try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(MERGE)) {
+                while (rs.next()) {
+                    inserted.add(rs.getLong(1));
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private static void appendRow(StringBuilder rows, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                rows.append(',');
+            }
+            // CSV: an unquoted empty field is NULL, everything else is quoted with quotes doubled.
+            // PostgreSQL text cannot hold NUL, which does occur in scraped descriptions.
+            if (values[i] != null) {
+                rows.append('"').append(values[i].replace("\0", "").replace("\"", "\"\"")).append('"');
+            }
+        }
+        rows.append('\n');
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bht.ludonova.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Approximate catalog counts taken from PostgreSQL's planner statistics instead of
+ * {@code count(*)}, so they cost the same however many games match.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameEstimateRepository {
+    private static final String ESTIMATE_GAMES = """
+            SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'games'::regclass
+            """;
+
+    private static final String EXPLAIN_SEARCH = """
+            EXPLAIN (FORMAT JSON) SELECT 1 FROM games g WHERE g.search_vector @@ to_tsquery('simple', ?)
+            """;
+
+    private static final String EXPLAIN_TITLE_CONTAINS = """
+            EXPLAIN (FORMAT JSON) SELECT 1 FROM games g WHERE lower(g.title)
+                LIKE lower(concat('%', replace(replace(replace(?, '\\', '\\\\'), '%', '\\%'), '_', '\\_'), '%')) ESCAPE '\\'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public long estimateGames() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_GAMES, Long.class);
+        return estimate != null ? estimate : 0;
+    }
+
+    public long estimateSearchMatches(String tsQuery) {
+        return planRows(EXPLAIN_SEARCH, tsQuery);
+    }
+
+    public long estimateTitleMatches(String title) {
+        return planRows(EXPLAIN_TITLE_CONTAINS, title);
+    }
+
+    // Row estimate of the top plan node
+    private long planRows(String explain, String param) {
+        String plan = jdbcTemplate.queryForObject(explain, String.class, param);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read query plan estimate", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * JDBC reads of game ids and {@code game_genres} rows backing the in-memory genre facet index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameGenreRepository {
+    private static final String SELECT_GAME_IDS = "SELECT id FROM games";
+
+    private static final String SELECT_GENRES = "SELECT game_id, genre FROM game_genres";
+
+    private static final String SELECT_EXISTING_IDS = "SELECT id FROM games WHERE id IN (:gameIds)";
+
+    private static final String SELECT_GENRES_BY_GAME = """
+            SELECT game_id, genre FROM game_genres WHERE game_id IN (:gameIds)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void streamGameIds(LongConsumer consumer) {
+        jdbcTemplate.query(SELECT_GAME_IDS, rs -> {
+            consumer.accept(rs.getLong(1));
+        });
+    }
+
+    public void streamGenres(GenreConsumer consumer) {
+        jdbcTemplate.query(SELECT_GENRES, rs -> {
+            consumer.accept(rs.getLong("game_id"), rs.getString("genre"));
+        });
+    }
+
+    public void streamExistingIds(Collection<Long> gameIds, LongConsumer consumer) {
+        if (!gameIds.isEmpty()) {
+            jdbcTemplate.query(SELECT_EXISTING_IDS, Map.of("gameIds", gameIds), rs -> {
+                consumer.accept(rs.getLong(1));
+            });
+        }
+    }
+
+    public void streamGenres(Collection<Long> gameIds, GenreConsumer consumer) {
+        if (!gameIds.isEmpty()) {
+            jdbcTemplate.query(SELECT_GENRES_BY_GAME, Map.of("gameIds", gameIds), rs -> {
+                consumer.accept(rs.getLong("game_id"), rs.getString("genre"));
+            });
+        }
+    }
+
+    @FunctionalInterface
+    public interface GenreConsumer {
+        void accept(long gameId, String genre);
+    }
+}
@@ -0,0 +1,105 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched JDBC writes for the game metadata enrichment pipeline. Enrichment only fills in
+ * fields that are still empty, so it never overwrites data entered by an admin or RAWG.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameMetadataRepository {
+    private static final int MAX_GENRE_LENGTH = 50;
+
+    private static final String SELECT_UNENRICHED_STEAM_GAMES = """
+            SELECT id, api_id, title FROM games
+            WHERE source = 'STEAM' AND metadata_enriched_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String APPLY_METADATA = """
+            UPDATE games
+            SET description = COALESCE(description, :description),
+                release_date = COALESCE(release_date, :releaseDate),
+                rating = COALESCE(rating, :rating),
+                metadata_enriched_at = now()
+            WHERE id = :gameId
+            """;
+
+    private static final String INSERT_GENRE = """
+            INSERT INTO game_genres (game_id, genre)
+            VALUES (:gameId, :genre)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<SteamGameRef> findUnenrichedSteamGames(int limit) {
+        return jdbcTemplate.query(SELECT_UNENRICHED_STEAM_GAMES, Map.of("limit", limit),
+                (rs, rowNum) -> new SteamGameRef(rs.getLong("id"), rs.getString("api_id"), rs.getString("title")));
+    }
+
+    @Transactional
+    public void applyMetadata(List<GameMetadata> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] updates = batch.stream()
+                .map(metadata -> new MapSqlParameterSource()
+                        .addValue("gameId", metadata.getGameId())
+                        .addValue("description", metadata.getDescription())
+                        .addValue("releaseDate", metadata.getReleaseDate())
+                        .addValue("rating", metadata.getRating()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(APPLY_METADATA, updates);
+
+        List<SqlParameterSource> genres = new ArrayList<>();
+        for (GameMetadata metadata : batch) {
+            for (String genre : metadata.getGenres()) {
+                genres.add(new MapSqlParameterSource()
+                        .addValue("gameId", metadata.getGameId())
+                        .addValue("genre", genre.length() > MAX_GENRE_LENGTH ? genre.substring(0, MAX_GENRE_LENGTH) : genre));
+            }
+        }
+        if (!genres.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GENRE, genres.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    @Value
+    public static class SteamGameRef {
+        long gameId;
+        String appId;
+        String title;
+    }
+
+    /**
+     * Metadata found for a game. All fields except the id may be empty, which still marks
+     * the game as enriched so it is not looked up again.
+     */
+    @Value
+    public static class GameMetadata {
+        long gameId;
+        String description;
+        LocalDate releaseDate;
+        Double rating;
+        Set<String> genres;
+
+        public static GameMetadata notFound(long gameId) {
+            return new GameMetadata(gameId, null, null, null, Set.of());
+        }
+    }
+}
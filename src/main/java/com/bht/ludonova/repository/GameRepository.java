@@ -6,16 +6,111 @@ import com.bht.ludonova.model.enums.Platform;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
     Optional<Game> findByApiIdAndSource(String apiId, GameSource source);
     boolean existsByApiIdAndSource(String apiId, GameSource source);
+    List<Game> findByApiIdInAndSource(Collection<String> apiIds, GameSource source);
     Page<Game> findAllByOrderByRatingDesc(Pageable pageable);
     Page<Game> findByTitleContainingIgnoreCase(String title, Pageable pageable);
     Optional<Game> findByApiId(String apiId);
+    long countBySource(GameSource source);
+
+    @Query("SELECT g.slug FROM Game g WHERE g.slug IN :slugs")
+    Set<String> findTakenSlugs(@Param("slugs") Collection<String> slugs);
+
+    // Full-text match on the weighted search_vector, best ranked first; tsQuery is a to_tsquery expression
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE g.search_vector @@ to_tsquery('simple', :tsQuery)
+            ORDER BY ts_rank_cd(g.search_vector, to_tsquery('simple', :tsQuery)) DESC, g.rating DESC NULLS LAST, g.id
+            """,
+            countQuery = """
+            SELECT count(*) FROM games g
+            WHERE g.search_vector @@ to_tsquery('simple', :tsQuery)
+            """,
+            nativeQuery = true)
+    Page<Game> searchRanked(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+    // Keyset pages in (COALESCE(rating, -1), id) DESC order: the next rows after the given seek key
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE (COALESCE(g.rating, -1), g.id) < (:rating, :id)
+            ORDER BY COALESCE(g.rating, -1) DESC, g.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Game> findPageAfter(@Param("rating") double rating, @Param("id") long id, @Param("limit") int limit);
+
+    // findPageAfter restricted to the given games, for genre filters matching few of them
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE g.id IN (:ids)
+              AND (COALESCE(g.rating, -1), g.id) < (:rating, :id)
+            ORDER BY COALESCE(g.rating, -1) DESC, g.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Game> findPageAfterIn(@Param("ids") Collection<Long> ids, @Param("rating") double rating,
+                               @Param("id") long id, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE g.search_vector @@ to_tsquery('simple', :tsQuery)
+              AND (COALESCE(g.rating, -1), g.id) < (:rating, :id)
+            ORDER BY COALESCE(g.rating, -1) DESC, g.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Game> searchPageAfter(@Param("tsQuery") String tsQuery, @Param("rating") double rating,
+                               @Param("id") long id, @Param("limit") int limit);
+
+    // Like the derived Containing query, the title is matched literally: LIKE wildcards in it are escaped
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE lower(g.title) LIKE lower(concat('%', replace(replace(replace(:title, '\\', '\\\\'), '%', '\\%'), '_', '\\_'), '%')) ESCAPE '\\'
+              AND (COALESCE(g.rating, -1), g.id) < (:rating, :id)
+            ORDER BY COALESCE(g.rating, -1) DESC, g.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Game> findByTitleContainingPageAfter(@Param("title") String title, @Param("rating") double rating,
+                                              @Param("id") long id, @Param("limit") int limit);
+
+    // Titles containing a run of words similar to the query, by pg_trgm word similarity on the
+    // normalized title; the cut-off is pg_trgm.word_similarity_threshold of the current transaction
+    @Query(value = """
+            SELECT g.* FROM games g
+            WHERE normalize_game_title(:query) <% g.normalized_title
+            ORDER BY word_similarity(normalize_game_title(:query), g.normalized_title) DESC, g.rating DESC NULLS LAST, g.id
+            """,
+            countQuery = """
+            SELECT count(*) FROM games g
+            WHERE normalize_game_title(:query) <% g.normalized_title
+            """,
+            nativeQuery = true)
+    Page<Game> searchByTrigram(@Param("query") String query, Pageable pageable);
+
+    // RAWG games not refreshed within staleSeconds; the stalest and most collected come first
+    @Query(value = """
+            SELECT g.id FROM games g
+            WHERE g.source = 'RAWG'
+              AND (g.rawg_last_updated IS NULL OR g.rawg_last_updated < now() - :staleSeconds * interval '1 second')
+            ORDER BY EXTRACT(EPOCH FROM now() - COALESCE(g.rawg_last_updated, g.created_at))
+                     * ln(2 + (SELECT count(*) FROM game_instances gi WHERE gi.game_id = g.id)) DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findStaleRawgGameIds(@Param("staleSeconds") long staleSeconds, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT count(*) FROM games g
+            WHERE g.source = 'RAWG'
+              AND (g.rawg_last_updated IS NULL OR g.rawg_last_updated < now() - :staleSeconds * interval '1 second')
+            """, nativeQuery = true)
+    long countStaleRawgGames(@Param("staleSeconds") long staleSeconds);
 }
\ No newline at end of file
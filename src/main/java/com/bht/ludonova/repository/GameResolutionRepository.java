@@ -0,0 +1,188 @@
+package com.bht.ludonova.repository;
+
+import com.bht.ludonova.model.enums.GameSource;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access for cross-source entity resolution: the title rows backing the in-memory
+ * resolver index, {@code game_source_aliases}, and the statements that fold a duplicate
+ * game into its canonical row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameResolutionRepository {
+    private static final String SELECT_TITLES = """
+            SELECT id, title, source, release_date FROM games
+            """;
+
+    private static final String SELECT_TITLES_BY_ID = """
+            SELECT id, title, source, release_date FROM games WHERE id IN (:gameIds)
+            """;
+
+    private static final String UPSERT_ALIAS = """
+            INSERT INTO game_source_aliases (source, external_id, game_id)
+            VALUES (:source, :externalId, :gameId)
+            ON CONFLICT (source, external_id) DO UPDATE SET game_id = EXCLUDED.game_id
+            """;
+
+    private static final String SELECT_ALIASED_GAME_ID = """
+            SELECT game_id FROM game_source_aliases WHERE source = :source AND external_id = :externalId
+            """;
+
+    private static final String EXISTS_ALIAS_FOR_GAME = """
+            SELECT EXISTS (SELECT 1 FROM game_source_aliases WHERE game_id = :gameId AND source = :source)
+            """;
+
+    // Statements merging game :duplicateId into :canonicalId, run in this order in one transaction
+    private static final List<String> MERGE_STATEMENTS = List.of(
+            // Keep the duplicate's external id resolvable
+            """
+            INSERT INTO game_source_aliases (source, external_id, game_id)
+            SELECT source, api_id, :canonicalId FROM games WHERE id = :duplicateId AND api_id IS NOT NULL
+            ON CONFLICT (source, external_id) DO UPDATE SET game_id = EXCLUDED.game_id
+            """,
+            "UPDATE game_source_aliases SET game_id = :canonicalId WHERE game_id = :duplicateId",
+            // Users owning both rows keep one instance with the larger playtime and latest play date
+            """
+            UPDATE game_instances c
+            SET playtime_minutes = GREATEST(c.playtime_minutes, d.playtime_minutes),
+                last_played_at = GREATEST(c.last_played_at, d.last_played_at),
+                play_time = GREATEST(c.play_time, d.play_time),
+                last_played = GREATEST(c.last_played, d.last_played),
+                notes = COALESCE(c.notes, d.notes),
+                progress_percentage = GREATEST(c.progress_percentage, d.progress_percentage),
+                updated_at = now()
+            FROM game_instances d
+            WHERE c.game_id = :canonicalId AND d.game_id = :duplicateId AND c.user_id = d.user_id
+            """,
+            """
+            DELETE FROM game_instances d
+            USING game_instances c
+            WHERE d.game_id = :duplicateId AND c.game_id = :canonicalId AND c.user_id = d.user_id
+            """,
+            "UPDATE game_instances SET game_id = :canonicalId WHERE game_id = :duplicateId",
+            // Users who reviewed both rows keep their most recently updated review
+            """
+            DELETE FROM reviews c
+            USING reviews d
+            WHERE c.game_id = :canonicalId AND d.game_id = :duplicateId AND c.user_id = d.user_id
+              AND d.updated_at > c.updated_at
+            """,
+            """
+            DELETE FROM reviews d
+            USING reviews c
+            WHERE d.game_id = :duplicateId AND c.game_id = :canonicalId AND c.user_id = d.user_id
+            """,
+            "UPDATE reviews SET game_id = :canonicalId WHERE game_id = :duplicateId",
+            // Playtime history and its rollups follow the instances
+            "UPDATE playtime_deltas SET game_id = :canonicalId WHERE game_id = :duplicateId",
+            """
+            INSERT INTO playtime_daily (user_id, game_id, day, minutes)
+            SELECT user_id, :canonicalId, day, minutes FROM playtime_daily WHERE game_id = :duplicateId
+            ON CONFLICT (user_id, day, game_id) DO UPDATE SET minutes = playtime_daily.minutes + EXCLUDED.minutes
+            """,
+            """
+            INSERT INTO playtime_weekly (user_id, game_id, week_start, minutes)
+            SELECT user_id, :canonicalId, week_start, minutes FROM playtime_weekly WHERE game_id = :duplicateId
+            ON CONFLICT (user_id, week_start, game_id) DO UPDATE SET minutes = playtime_weekly.minutes + EXCLUDED.minutes
+            """,
+            """
+            INSERT INTO game_genres (game_id, genre)
+            SELECT :canonicalId, genre FROM game_genres WHERE game_id = :duplicateId
+            ON CONFLICT DO NOTHING
+            """,
+            """
+            UPDATE games c
+            SET description = COALESCE(c.description, d.description),
+                release_date = COALESCE(c.release_date, d.release_date),
+                rating = COALESCE(c.rating, d.rating)
+            FROM games d
+            WHERE c.id = :canonicalId AND d.id = :duplicateId
+            """,
+            "DELETE FROM games WHERE id = :duplicateId");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void streamTitles(Consumer<GameTitle> consumer) {
+        jdbcTemplate.query(SELECT_TITLES, rs -> {
+            consumer.accept(toGameTitle(rs));
+        });
+    }
+
+    public List<GameTitle> findTitles(Collection<Long> gameIds) {
+        if (gameIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_TITLES_BY_ID, Map.of("gameIds", gameIds), (rs, rowNum) -> toGameTitle(rs));
+    }
+
+    public void saveAliases(GameSource source, Map<String, Long> gameIdsByExternalId) {
+        if (gameIdsByExternalId.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = gameIdsByExternalId.entrySet().stream()
+                .map(alias -> new MapSqlParameterSource()
+                        .addValue("source", source.name())
+                        .addValue("externalId", alias.getKey())
+                        .addValue("gameId", alias.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_ALIAS, batch);
+    }
+
+    public Optional<Long> findAliasedGameId(GameSource source, String externalId) {
+        return jdbcTemplate.queryForList(SELECT_ALIASED_GAME_ID, new MapSqlParameterSource()
+                        .addValue("source", source.name())
+                        .addValue("externalId", externalId), Long.class)
+                .stream()
+                .findFirst();
+    }
+
+    public boolean hasAlias(Long gameId, GameSource source) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_ALIAS_FOR_GAME, new MapSqlParameterSource()
+                .addValue("gameId", gameId)
+                .addValue("source", source.name()), Boolean.class));
+    }
+
+    /**
+     * Folds the duplicate game into the canonical one: instances, reviews, genres and aliases
+     * are repointed, conflicting per-user rows merged, and the duplicate row deleted.
+     * Must run inside a transaction.
+     */
+    public void mergeInto(long duplicateId, long canonicalId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("duplicateId", duplicateId)
+                .addValue("canonicalId", canonicalId);
+        MERGE_STATEMENTS.forEach(sql -> jdbcTemplate.update(sql, params));
+    }
+
+    private static GameTitle toGameTitle(ResultSet rs) throws SQLException {
+        Date releaseDate = rs.getDate("release_date");
+        return new GameTitle(
+                rs.getLong("id"),
+                rs.getString("title"),
+                GameSource.valueOf(rs.getString("source")),
+                releaseDate != null ? releaseDate.toLocalDate().getYear() : null);
+    }
+
+    @Value
+    public static class GameTitle {
+        long gameId;
+        String title;
+        GameSource source;
+        Integer releaseYear;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC reads backing the in-memory autocomplete index: every game's title with the rating
+ * and collection count it is ranked by.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameSuggestRepository {
+    private static final String SELECT_ALL = """
+            SELECT g.id, g.title, g.rating, COALESCE(gi.instance_count, 0) AS instance_count
+            FROM games g
+            LEFT JOIN (SELECT game_id, count(*) AS instance_count FROM game_instances GROUP BY game_id) gi
+                   ON gi.game_id = g.id
+            """;
+
+    private static final String SELECT_BY_ID = """
+            SELECT g.id, g.title, g.rating,
+                   (SELECT count(*) FROM game_instances gi WHERE gi.game_id = g.id) AS instance_count
+            FROM games g WHERE g.id IN (:gameIds)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void streamAll(Consumer<SuggestRow> consumer) {
+        jdbcTemplate.query(SELECT_ALL, rs -> {
+            consumer.accept(toRow(rs));
+        });
+    }
+
+    public List<SuggestRow> findByIds(Collection<Long> gameIds) {
+        if (gameIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_BY_ID, Map.of("gameIds", gameIds), (rs, rowNum) -> toRow(rs));
+    }
+
+    private static SuggestRow toRow(ResultSet rs) throws SQLException {
+        double rating = rs.getDouble("rating");
+        boolean unrated = rs.wasNull();
+        return new SuggestRow(
+                rs.getLong("id"),
+                rs.getString("title"),
+                unrated ? null : rating,
+                rs.getLong("instance_count"));
+    }
+
+    @Value
+    public static class SuggestRow {
+        long gameId;
+        String title;
+        Double rating;
+        long instanceCount;
+    }
+}
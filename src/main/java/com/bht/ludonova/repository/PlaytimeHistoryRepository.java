@@ -0,0 +1,130 @@
+package com.bht.ludonova.repository;
+
+import com.bht.ludonova.model.enums.PlaytimeGranularity;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Playtime history written by the Steam sync. Every change is appended to the monthly
+ * partitioned {@code playtime_deltas} table and added to the daily and weekly rollups in the
+ * same statement batch, so trend queries only ever read the small rollup tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlaytimeHistoryRepository {
+    private static final String INSERT_DELTA = """
+            INSERT INTO playtime_deltas (user_id, game_id, recorded_at, delta_minutes, total_minutes)
+            VALUES (:userId, :gameId, :recordedAt, :deltaMinutes, :totalMinutes)
+            """;
+
+    private static final String UPSERT_DAILY = """
+            INSERT INTO playtime_daily (user_id, game_id, day, minutes)
+            VALUES (:userId, :gameId, CAST(:recordedAt AS DATE), :deltaMinutes)
+            ON CONFLICT (user_id, day, game_id) DO UPDATE
+            SET minutes = playtime_daily.minutes + EXCLUDED.minutes
+            """;
+
+    private static final String UPSERT_WEEKLY = """
+            INSERT INTO playtime_weekly (user_id, game_id, week_start, minutes)
+            VALUES (:userId, :gameId, CAST(date_trunc('week', CAST(:recordedAt AS TIMESTAMP)) AS DATE), :deltaMinutes)
+            ON CONFLICT (user_id, week_start, game_id) DO UPDATE
+            SET minutes = playtime_weekly.minutes + EXCLUDED.minutes
+            """;
+
+    private static final Map<PlaytimeGranularity, String> USER_TREND = Map.of(
+            PlaytimeGranularity.DAY, """
+                    SELECT day AS period_start, SUM(minutes) AS minutes FROM playtime_daily
+                    WHERE user_id = :userId AND day BETWEEN :from AND :to
+                      AND (CAST(:gameId AS BIGINT) IS NULL OR game_id = :gameId)
+                    GROUP BY day ORDER BY day
+                    """,
+            PlaytimeGranularity.WEEK, """
+                    SELECT week_start AS period_start, SUM(minutes) AS minutes FROM playtime_weekly
+                    WHERE user_id = :userId AND week_start BETWEEN :from AND :to
+                      AND (CAST(:gameId AS BIGINT) IS NULL OR game_id = :gameId)
+                    GROUP BY week_start ORDER BY week_start
+                    """);
+
+    private static final Map<PlaytimeGranularity, String> GAME_TREND = Map.of(
+            PlaytimeGranularity.DAY, """
+                    SELECT day AS period_start, SUM(minutes) AS minutes FROM playtime_daily
+                    WHERE game_id = :gameId AND day BETWEEN :from AND :to
+                    GROUP BY day ORDER BY day
+                    """,
+            PlaytimeGranularity.WEEK, """
+                    SELECT week_start AS period_start, SUM(minutes) AS minutes FROM playtime_weekly
+                    WHERE game_id = :gameId AND week_start BETWEEN :from AND :to
+                    GROUP BY week_start ORDER BY week_start
+                    """);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends the deltas and adds them to the rollups. Must run in the caller's transaction
+     * so history and rollups never disagree.
+     */
+    public void recordDeltas(Long userId, List<PlaytimeDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("gameId", delta.getGameId())
+                        .addValue("recordedAt", delta.getRecordedAt())
+                        .addValue("deltaMinutes", delta.getDeltaMinutes())
+                        .addValue("totalMinutes", delta.getTotalMinutes()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_DELTA, batch);
+        jdbcTemplate.batchUpdate(UPSERT_DAILY, batch);
+        jdbcTemplate.batchUpdate(UPSERT_WEEKLY, batch);
+    }
+
+    public List<TrendPoint> findUserTrend(Long userId, Long gameId, PlaytimeGranularity granularity,
+                                         LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("gameId", gameId)
+                .addValue("from", from)
+                .addValue("to", to);
+        return jdbcTemplate.query(USER_TREND.get(granularity), params, (rs, rowNum) ->
+                new TrendPoint(rs.getDate("period_start").toLocalDate(), rs.getLong("minutes")));
+    }
+
+    public List<TrendPoint> findGameTrend(Long gameId, PlaytimeGranularity granularity, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("gameId", gameId)
+                .addValue("from", from)
+                .addValue("to", to);
+        return jdbcTemplate.query(GAME_TREND.get(granularity), params, (rs, rowNum) ->
+                new TrendPoint(rs.getDate("period_start").toLocalDate(), rs.getLong("minutes")));
+    }
+
+    public void createMonthlyPartition(LocalDate month) {
+        jdbcTemplate.query("SELECT create_playtime_partition(:month)", Map.of("month", month), rs -> {
+        });
+    }
+
+    @Value
+    public static class PlaytimeDelta {
+        long gameId;
+        Timestamp recordedAt;
+        int deltaMinutes;
+        int totalMinutes;
+    }
+
+    @Value
+    public static class TrendPoint {
+        LocalDate periodStart;
+        long minutes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Daily Steam Web API call counts. Instances add the calls they made since their last flush
+ * and read back the day's total across all of them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SteamApiUsageRepository {
+    private static final String ADD_CALLS = """
+            INSERT INTO steam_api_usage (usage_day, calls, updated_at)
+            VALUES (:day, :calls, now())
+            ON CONFLICT (usage_day) DO UPDATE
+            SET calls = steam_api_usage.calls + EXCLUDED.calls,
+                updated_at = EXCLUDED.updated_at
+            RETURNING calls
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds calls to the day's count.
+     *
+     * @return the day's total after adding them
+     */
+    public long addCalls(LocalDate day, long calls) {
+        Long total = jdbcTemplate.queryForObject(ADD_CALLS, new MapSqlParameterSource()
+                .addValue("day", Date.valueOf(day))
+                .addValue("calls", calls), Long.class);
+        return total != null ? total : calls;
+    }
+}
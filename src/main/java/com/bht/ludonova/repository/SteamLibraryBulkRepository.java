@@ -0,0 +1,163 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Set-based JDBC access used by the Steam library sync. Reads are done with IN-lists and
+ * writes with batched {@code INSERT ... ON CONFLICT} statements so that a whole chunk of
+ * a library costs a handful of round trips instead of several per game.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SteamLibraryBulkRepository {
+    // App ids mapped onto a game from another source take precedence over their own Steam row
+    private static final String SELECT_STEAM_GAME_IDS = """
+            SELECT external_id AS api_id, game_id AS id FROM game_source_aliases
+            WHERE source = 'STEAM' AND external_id IN (:appIds)
+            UNION ALL
+            SELECT g.api_id, g.id FROM games g
+            WHERE g.source = 'STEAM' AND g.api_id IN (:appIds)
+              AND NOT EXISTS (SELECT 1 FROM game_source_aliases a
+                              WHERE a.source = 'STEAM' AND a.external_id = g.api_id)
+            """;
+
+    private static final String INSERT_STEAM_GAME = """
+            INSERT INTO games (title, slug, api_id, background_image, source)
+            VALUES (:title, :slug, :apiId, :backgroundImage, 'STEAM')
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String SELECT_INSTANCE_STATE = """
+            SELECT game_id, playtime_minutes, last_played_at FROM game_instances
+            WHERE user_id = :userId AND game_id IN (:gameIds)
+            """;
+
+    private static final String UPSERT_INSTANCE = """
+            INSERT INTO game_instances (user_id, game_id, status, playtime_minutes, last_played_at, added_at)
+            VALUES (:userId, :gameId, 'PLAYING', :playtimeMinutes, :lastPlayedAt, now())
+            ON CONFLICT (user_id, game_id) DO UPDATE
+            SET playtime_minutes = EXCLUDED.playtime_minutes,
+                last_played_at = COALESCE(EXCLUDED.last_played_at, game_instances.last_played_at),
+                updated_at = now()
+            """;
+
+    private static final String SELECT_FINGERPRINT = """
+            SELECT fingerprint FROM steam_library_fingerprints WHERE user_id = :userId
+            """;
+
+    private static final String UPSERT_FINGERPRINT = """
+            INSERT INTO steam_library_fingerprints (user_id, fingerprint, game_count, synced_at)
+            VALUES (:userId, :fingerprint, :gameCount, now())
+            ON CONFLICT (user_id) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint,
+                game_count = EXCLUDED.game_count,
+                synced_at = EXCLUDED.synced_at
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<String, Long> findSteamGameIds(Collection<String> appIds) {
+        Map<String, Long> ids = new HashMap<>();
+        if (appIds.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(SELECT_STEAM_GAME_IDS, Map.of("appIds", appIds), rs -> {
+            ids.put(rs.getString("api_id"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    /**
+     * Inserts the given games, silently skipping rows that violate a unique constraint
+     * (an existing app id or a slug already taken by another game).
+     */
+    public void insertSteamGames(List<NewSteamGame> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = games.stream()
+                .map(game -> new MapSqlParameterSource()
+                        .addValue("title", game.getTitle())
+                        .addValue("slug", game.getSlug())
+                        .addValue("apiId", game.getApiId())
+                        .addValue("backgroundImage", game.getBackgroundImage()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_STEAM_GAME, batch);
+    }
+
+    public Map<Long, InstanceState> findInstanceState(Long userId, Collection<Long> gameIds) {
+        Map<Long, InstanceState> state = new HashMap<>();
+        if (gameIds.isEmpty()) {
+            return state;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("gameIds", gameIds);
+        jdbcTemplate.query(SELECT_INSTANCE_STATE, params, rs -> {
+            long gameId = rs.getLong("game_id");
+            Integer playtime = (Integer) rs.getObject("playtime_minutes");
+            state.put(gameId, new InstanceState(gameId, playtime, rs.getTimestamp("last_played_at")));
+        });
+        return state;
+    }
+
+    public void upsertInstances(Long userId, List<InstanceState> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = instances.stream()
+                .map(instance -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("gameId", instance.getGameId())
+                        .addValue("playtimeMinutes", instance.getPlaytimeMinutes())
+                        .addValue("lastPlayedAt", instance.getLastPlayedAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_INSTANCE, batch);
+    }
+
+    public Optional<byte[]> findFingerprint(Long userId) {
+        return jdbcTemplate.query(SELECT_FINGERPRINT, Map.of("userId", userId),
+                        (rs, rowNum) -> rs.getBytes("fingerprint"))
+                .stream()
+                .findFirst();
+    }
+
+    public void saveFingerprint(Long userId, byte[] fingerprint, int gameCount) {
+        jdbcTemplate.update(UPSERT_FINGERPRINT, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("fingerprint", fingerprint)
+                .addValue("gameCount", gameCount));
+    }
+
+    public void deleteFingerprint(Long userId) {
+        jdbcTemplate.update("DELETE FROM steam_library_fingerprints WHERE user_id = :userId",
+                Map.of("userId", userId));
+    }
+
+    @Value
+    public static class NewSteamGame {
+        String apiId;
+        String title;
+        String slug;
+        String backgroundImage;
+    }
+
+    @Value
+    public static class InstanceState {
+        long gameId;
+        Integer playtimeMinutes;
+        Timestamp lastPlayedAt;
+    }
+}
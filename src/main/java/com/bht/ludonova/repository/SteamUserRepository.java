@@ -0,0 +1,38 @@
+package com.bht.ludonova.repository;
+
+import com.bht.ludonova.model.SteamUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SteamUserRepository extends JpaRepository<SteamUser, String> {
+
+    // Keyset page of stored steam ids, used to walk the table in batches
+    @Query(value = """
+            SELECT steam_id FROM steam_users
+            WHERE steam_id > :after
+            ORDER BY steam_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findSteamIdsAfter(@Param("after") String after, @Param("limit") int limit);
+
+    // Only touches the row when something actually changed
+    @Modifying
+    @Query(value = """
+            UPDATE steam_users
+            SET persona_name = :personaName, profile_url = :profileUrl, avatar_url = :avatarUrl
+            WHERE steam_id = :steamId
+              AND (persona_name IS DISTINCT FROM :personaName
+                   OR profile_url IS DISTINCT FROM :profileUrl
+                   OR avatar_url IS DISTINCT FROM :avatarUrl)
+            """, nativeQuery = true)
+    int updateSummary(@Param("steamId") String steamId,
+                      @Param("personaName") String personaName,
+                      @Param("profileUrl") String profileUrl,
+                      @Param("avatarUrl") String avatarUrl);
+}
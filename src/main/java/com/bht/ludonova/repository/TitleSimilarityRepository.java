@@ -0,0 +1,56 @@
+package com.bht.ludonova.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Title similarity computed by {@code pg_trgm}, with titles normalized by the
+ * {@code normalize_game_title} SQL function on both sides.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TitleSimilarityRepository {
+    private static final String SET_WORD_SIMILARITY_THRESHOLD =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+
+    private static final String SELECT_SIMILAR = """
+            SELECT t FROM unnest(ARRAY[:titles]) AS t
+            WHERE similarity(normalize_game_title(t), normalize_game_title(:query)) >= :threshold
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets the threshold of the {@code <%} operator for the rest of the current transaction,
+     * so the trigram index can be used with it.
+     */
+    public void setWordSimilarityThreshold(double threshold) {
+        jdbcTemplate.queryForObject(SET_WORD_SIMILARITY_THRESHOLD,
+                Map.of("threshold", Double.toString(threshold)), String.class);
+    }
+
+    /**
+     * Returns the titles whose trigram similarity to the query reaches the threshold.
+     */
+    public Set<String> findSimilar(String query, Collection<String> titles, double threshold) {
+        Set<String> similar = new HashSet<>();
+        if (titles.isEmpty()) {
+            return similar;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("titles", titles)
+                .addValue("query", query)
+                .addValue("threshold", threshold);
+        jdbcTemplate.query(SELECT_SIMILAR, params, rs -> {
+            similar.add(rs.getString(1));
+        });
+        return similar;
+    }
+}
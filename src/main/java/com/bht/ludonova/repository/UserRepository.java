@@ -2,7 +2,13 @@ package com.bht.ludonova.repository;
 
 import com.bht.ludonova.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +16,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Optional<User> findBySteamUser_SteamId(String steamId);
-}
\ No newline at end of file
+
+    // Steam-connected users whose library was never synced or not within staleSeconds, least recently
+    // attempted first; users whose last syncs failed wait backoffSeconds doubled per failure, up to maxBackoffSeconds
+    @Query(value = """
+            SELECT u.id FROM users u
+            LEFT JOIN steam_library_fingerprints f ON f.user_id = u.id
+            WHERE u.steam_id IS NOT NULL AND (f.synced_at IS NULL OR f.synced_at < now() - :staleSeconds * interval '1 second')
+              AND (u.steam_sync_failures = 0 OR u.steam_sync_attempted_at IS NULL
+                   OR u.steam_sync_attempted_at < now() - LEAST(:maxBackoffSeconds,
+                          :backoffSeconds * power(2, LEAST(u.steam_sync_failures, 30) - 1)) * interval '1 second')
+            ORDER BY u.steam_sync_attempted_at ASC NULLS FIRST, f.synced_at ASC NULLS FIRST
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findSteamUserIdsDueForSync(@Param("staleSeconds") long staleSeconds,
+                                          @Param("backoffSeconds") long backoffSeconds,
+                                          @Param("maxBackoffSeconds") long maxBackoffSeconds,
+                                          @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT count(*) FROM users u
+            LEFT JOIN steam_library_fingerprints f ON f.user_id = u.id
+            WHERE u.steam_id IS NOT NULL AND (f.synced_at IS NULL OR f.synced_at < now() - :staleSeconds * interval '1 second')
+            """, nativeQuery = true)
+    long countSteamUsersDueForSync(@Param("staleSeconds") long staleSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET steam_sync_attempted_at = now() WHERE id = :userId", nativeQuery = true)
+    void recordSteamSyncAttempt(@Param("userId") Long userId);
+
+    // A success resets the failure count, so the next failure starts over at the base backoff
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE users
+            SET steam_sync_failures = CASE WHEN :failed THEN steam_sync_failures + 1 ELSE 0 END
+            WHERE id = :userId
+            """, nativeQuery = true)
+    void recordSteamSyncOutcome(@Param("userId") Long userId, @Param("failed") boolean failed);
+
+    long countBySteamUserIsNotNull();
+}
@@ -3,15 +3,16 @@ package com.bht.ludonova.service;
 import com.bht.ludonova.dto.auth.AuthenticationResponse;
 import com.bht.ludonova.dto.auth.TokenResponse;
 import com.bht.ludonova.exception.AuthenticationException;
-import com.bht.ludonova.model.SteamUser;
 import com.bht.ludonova.model.User;
 import com.bht.ludonova.repository.UserRepository;
 import com.bht.ludonova.security.JwtService;
+import com.bht.ludonova.service.auth.SteamLoginFlow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -23,7 +24,7 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserService userService;
-    private final SteamService steamService;
+    private final SteamLoginFlow steamLoginFlow;
 
     public AuthenticationResponse authenticate(String provider, Map<String, String> credentials) {
         if ("basic".equals(provider)) {
@@ -57,34 +58,22 @@ public class AuthenticationService {
                     userService.convertToDTO(user)
             );
         } else if ("steam".equals(provider)) {
-            // Validate Steam response
-            if (!steamService.validateSteamResponse(credentials)) {
-                throw new AuthenticationException("Invalid Steam response");
-            }
-
-            // Extract Steam ID
-            String steamId = extractSteamId(credentials);
-            if (steamId == null) {
-                throw new AuthenticationException("Could not extract Steam ID");
-            }
-
-            // Get or create user
-            SteamUser steamUser = steamService.fetchUserDetails(steamId);
-            User user = userService.getOrCreateSteamUser(steamUser);
-
-            // Generate tokens
-            String accessToken = jwtService.generateToken(user);
-            String refreshToken = jwtService.generateRefreshToken(user);
-
-            return new AuthenticationResponse(
-                    new TokenResponse(accessToken, refreshToken),
-                    userService.convertToDTO(user)
-            );
+            return authenticateSteam(credentials).block();
         }
 
         throw new AuthenticationException("Unsupported authentication provider: " + provider);
     }
 
+    /**
+     * Non-blocking Steam OpenID login, see {@link SteamLoginFlow}.
+     */
+    public Mono<AuthenticationResponse> authenticateSteam(Map<String, String> openIdParams) {
+        return steamLoginFlow.authenticate(openIdParams)
+                .map(user -> new AuthenticationResponse(
+                        new TokenResponse(jwtService.generateToken(user), jwtService.generateRefreshToken(user)),
+                        userService.convertToDTO(user)));
+    }
+
     public AuthenticationResponse refresh(String refreshToken) {
         if (!jwtService.isTokenValid(refreshToken)) {
             throw new AuthenticationException("Invalid refresh token");
@@ -102,12 +91,4 @@ public class AuthenticationService {
                 userService.convertToDTO(user)
         );
     }
-
-    private String extractSteamId(Map<String, String> params) {
-        String identity = params.get("openid.claimed_id");
-        if (identity != null && identity.matches("https://steamcommunity.com/openid/id/\\d+")) {
-            return identity.substring(identity.lastIndexOf("/") + 1);
-        }
-        return null;
-    }
 }
\ No newline at end of file
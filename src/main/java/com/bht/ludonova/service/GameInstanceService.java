@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.bht.ludonova.dto.gameInstance.*;
 import com.bht.ludonova.exception.*;
 import com.bht.ludonova.model.*;
+import com.bht.ludonova.model.enums.GameSource;
 import com.bht.ludonova.model.enums.GameStatus;
 import com.bht.ludonova.repository.*;
 import com.bht.ludonova.mapper.GameInstanceMapper;
@@ -28,6 +29,8 @@ public class GameInstanceService {
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final GameInstanceMapper gameInstanceMapper;
+    private final SteamLibraryBulkRepository steamLibraryBulkRepository;
+    private final GameResolutionRepository resolutionRepository;
 
     public GameInstanceResponseDTO createGameInstance(Long userId, GameInstanceCreateDTO dto) {
         // Check if user already has this game
@@ -160,6 +163,12 @@ public class GameInstanceService {
         }
 
         gameInstanceRepository.delete(instance);
+
+        // Drop the Steam fingerprint so the next sync does a full pass over the library again
+        Game game = instance.getGame();
+        if (game.getSource() == GameSource.STEAM || resolutionRepository.hasAlias(game.getId(), GameSource.STEAM)) {
+            steamLibraryBulkRepository.deleteFingerprint(userId);
+        }
     }
 
     public GameInstanceStatsDTO getUserGameStats(Long userId) {
@@ -1,22 +1,33 @@
 package com.bht.ludonova.service;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.HashSet;
 
+import org.roaringbitmap.RoaringBitmap;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 
-import com.bht.ludonova.dto.rawg.RawgGameDTO;
-import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
+import com.bht.ludonova.dto.game.GameScrollDTO;
 import com.bht.ludonova.model.Game;
-import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.GameEstimateRepository;
 import com.bht.ludonova.repository.GameRepository;
+import com.bht.ludonova.repository.TitleSimilarityRepository;
+import com.bht.ludonova.service.catalog.GenreFacetIndex;
+import com.bht.ludonova.util.TitleNormalizer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,9 +37,25 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class GameService {
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int GENRE_SCAN_BATCH_SIZE = 500;
+
     private final GameRepository gameRepository;
-    private final RawgService rawgService;
     private final CacheManager cacheManager;
+    private final SearchBackfillService searchBackfillService;
+    private final TitleSimilarityRepository titleSimilarityRepository;
+    private final GameEstimateRepository gameEstimateRepository;
+    private final GenreFacetIndex genreFacetIndex;
+
+    @Value("${search.trigram.threshold:0.5}")
+    private double trigramThreshold;
+
+    // Genre filters matching at most this many games look them up by id instead of scanning
+    @Value("${search.genre-filter.max-id-list:5000}")
+    private int maxGenreIdList;
+
+    @Value("${search.genre-filter.max-scanned-rows:20000}")
+    private int maxGenreScannedRows;
 
     @Cacheable(value = "games", key = "#id")
     public Optional<Game> findById(Long id) {
@@ -39,261 +66,257 @@ public class GameService {
         return gameRepository.count();
     }
 
-    @Transactional
-    public void initializeGameDatabase() {
-        long currentCount = gameRepository.count();
-        if (currentCount < 500) {
-            log.info("Initializing game database with popular games... Current count: {}", currentCount);
-            int totalGamesFetched = 0;
-            int targetGames = 500;
-            final int MAX_PAGE_SIZE = 40; // RAWG API limit
-            final int PAGES_PER_TIER = 5; // Fetch more pages per tier
-
-            // Define metacritic score tiers from highest to lowest
-            int[][] metacriticTiers = {
-                {90, 100}, // Masterpieces
-                {85, 89},  // Excellent games
-                {80, 84},  // Very good games
-                {75, 79},  // Good games
-                {70, 74}   // Above average games
-            };
-
-            try {
-                for (int[] tier : metacriticTiers) {
-                    if (totalGamesFetched >= targetGames) {
-                        break;
-                    }
-
-                    int minScore = tier[0];
-                    int maxScore = tier[1];
-                    log.info("Fetching games with metacritic score between {} and {}...", minScore, maxScore);
-
-                    for (int page = 1; page <= PAGES_PER_TIER; page++) {
-                        if (totalGamesFetched >= targetGames) {
-                            break;
-                        }
-
-                        log.info("Fetching page {} for metacritic {}-{}...", page, minScore, maxScore);
-                        RawgSearchResponseDTO response = rawgService.listGames(
-                            page,
-                            "-metacritic",  // Always sort by metacritic score
-                            null,
-                            MAX_PAGE_SIZE,
-                            null,           // No minimum ratings requirement
-                            String.format("%d,%d", minScore, maxScore) // metacritic range
-                        );
-
-                        if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
-                            log.warn("No more results from RAWG API for metacritic {}-{} on page {}", 
-                                minScore, maxScore, page);
-                            break;
-                        }
-
-                        log.debug("Received {} games from RAWG API", response.getResults().size());
-                        int pageGamesFetched = 0;
-                        for (RawgGameDTO rawgGame : response.getResults()) {
-                            if (totalGamesFetched >= targetGames) {
-                                break;
-                            }
-
-                            try {
-                                if (rawgGame.getName() == null || rawgGame.getName().trim().isEmpty()) {
-                                    log.warn("Skipping game with null or empty name");
-                                    continue;
-                                }
-
-                                // Check if we already have this game
-                                if (gameRepository.existsByApiIdAndSource(
-                                    rawgGame.getId().toString(), GameSource.RAWG)) {
-                                    log.debug("Skipping existing game: {}", rawgGame.getName());
-                                    continue;
-                                }
-
-                                Game game = syncGameFromRawg(rawgGame);
-                                if (game != null) {
-                                    totalGamesFetched++;
-                                    pageGamesFetched++;
-                                    log.debug("Synced game: {} (Total: {}, Metacritic: {})", 
-                                        game.getTitle(), totalGamesFetched, rawgGame.getMetacritic());
-                                }
-                            } catch (Exception e) {
-                                log.warn("Failed to sync game: {} - Error: {}", rawgGame.getName(), e.getMessage());
-                            }
-                        }
-
-                        log.info("Fetched {} games from metacritic {}-{} page {}, total games fetched: {}", 
-                            pageGamesFetched, minScore, maxScore, page, totalGamesFetched);
-                        
-                        if (response.getNext() == null || pageGamesFetched == 0) {
-                            log.info("No more pages available for metacritic {}-{}", minScore, maxScore);
-                            break;
-                        }
-                        
-                        // Add a small delay to avoid rate limiting
-                        try {
-                            Thread.sleep(1000);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    }
-                }
-
-                log.info("Initialized game database with {} games. Final database count: {}", 
-                    totalGamesFetched, gameRepository.count());
-            } catch (Exception e) {
-                log.error("Error during game database initialization: {} ({})", e.getMessage(), e.getClass().getName(), e);
+    /**
+     * Searches the local catalog. When it has fewer matches than the page size, RAWG is
+     * searched as well: in the background if {@code rawg.search.backfill.async} is set (the
+     * result then says whether enrichment is pending), otherwise before returning.
+     */
+    public SearchResult searchGames(String searchQuery, Pageable pageable,
+                                    Collection<String> allGenres, Collection<String> anyGenres) {
+        RoaringBitmap genreMatches = genreMatches(allGenres, anyGenres);
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            if (genreMatches != null) {
+                return new SearchResult(browseGenres(genreMatches, pageable), false);
             }
-        } else {
-            log.info("Game database already initialized with {} games.", currentCount);
+            return new SearchResult(gameRepository.findAllByOrderByRatingDesc(pageable), false);
         }
-    }
-
-    @Transactional
-    public Page<Game> searchGames(String searchQuery, Pageable pageable) {
-        if (searchQuery == null || searchQuery.trim().isEmpty()) {
-            return gameRepository.findAllByOrderByRatingDesc(pageable);
+        if (genreMatches != null) {
+            throw new IllegalArgumentException("Genre filters apply to browsing, search within genres via /api/games/scroll");
         }
 
         // First check local cache/database
-        Page<Game> localResults = gameRepository
-                .findByTitleContainingIgnoreCase(searchQuery.trim(), pageable);
+        Page<Game> localResults = findLocalMatches(searchQuery, pageable);
 
         // If insufficient results, fetch from RAWG
         if (localResults.getContent().size() < pageable.getPageSize()) {
+            if (searchBackfillService.isAsync()) {
+                return new SearchResult(localResults, searchBackfillService.submit(searchQuery));
+            }
             try {
-                // Fetch first 2 pages from RAWG for better performance
-                for (int i = 1; i <= 2; i++) {
-                    fetchAndSyncGamesFromRawg(searchQuery, i);
-                }
-                return gameRepository.findByTitleContainingIgnoreCase(
-                        searchQuery.trim(), pageable);
+                searchBackfillService.backfill(searchQuery);
+                return new SearchResult(findLocalMatches(searchQuery, pageable), false);
             } catch (Exception e) {
                 log.error("Error fetching from RAWG", e);
-                return localResults;
+                return new SearchResult(localResults, false);
             }
         }
 
-        return localResults;
+        return new SearchResult(localResults, false);
     }
 
-    @Transactional
-    protected void fetchAndSyncGamesFromRawg(String query, int page) {
-        RawgSearchResponseDTO searchResponse = rawgService.searchGames(query, page);
-        if (searchResponse != null && searchResponse.getResults() != null) {
-            // Only sync games that are exact or very close matches
-            searchResponse.getResults().stream()
-                .filter(rawgGame -> {
-                    String normalizedQuery = query.toLowerCase().trim();
-                    String normalizedTitle = rawgGame.getName().toLowerCase().trim();
-                    
-                    // Exact match
-                    if (normalizedTitle.equals(normalizedQuery)) {
-                        return true;
-                    }
-                    
-                    // Contains match (only if the query is at least 5 characters)
-                    if (normalizedQuery.length() >= 5 && (
-                        normalizedTitle.contains(normalizedQuery) || 
-                        normalizedQuery.contains(normalizedTitle))) {
-                        return true;
-                    }
-                    
-                    // Fuzzy match for longer titles
-                    if (normalizedQuery.length() >= 8) {
-                        double similarity = calculateSimilarity(normalizedQuery, normalizedTitle);
-                        return similarity >= 0.8; // 80% similarity threshold
-                    }
-                    
-                    return false;
-                })
-                .forEach(this::syncGameFromRawg);
+    /**
+     * A page of the games matching a genre filter in {@link #scrollGames} order. The total is
+     * exact, it is the size of the genre bitmap.
+     */
+    private Page<Game> browseGenres(RoaringBitmap genreMatches, Pageable pageable) {
+        long total = genreMatches.getLongCardinality();
+        PageFetcher fetcher;
+        if (total <= maxGenreIdList) {
+            List<Long> ids = GenreFacetIndex.gameIds(genreMatches);
+            fetcher = (seek, count) -> ids.isEmpty() ? List.of()
+                    : gameRepository.findPageAfterIn(ids, seek.getRating(), seek.getId(), count);
+        } else {
+            fetcher = (seek, count) -> gameRepository.findPageAfter(seek.getRating(), seek.getId(), count);
+        }
+
+        List<Game> games = new ArrayList<>();
+        long skip = pageable.getOffset();
+        SeekKey seek = SeekKey.FIRST;
+        while (games.size() < pageable.getPageSize()) {
+            List<Game> batch = fetcher.fetch(seek, GENRE_SCAN_BATCH_SIZE);
+            for (Game game : batch) {
+                seek = SeekKey.of(game);
+                if (!GenreFacetIndex.contains(genreMatches, game.getId())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (games.size() < pageable.getPageSize()) {
+                    games.add(game);
+                }
+            }
+            if (batch.size() < GENRE_SCAN_BATCH_SIZE) {
+                break;
+            }
         }
+        return new PageImpl<>(games, pageable, total);
     }
 
-    private double calculateSimilarity(String s1, String s2) {
-        int maxLength = Math.max(s1.length(), s2.length());
-        if (maxLength == 0) return 1.0;
-        return 1.0 - ((double) levenshteinDistance(s1, s2) / maxLength);
+    /**
+     * Keyset-paginated browsing and search, best rated first. Each page seeks past the last
+     * game of the previous one on the {@code (COALESCE(rating, -1), id)} index, so deep pages
+     * cost the same as the first and no {@code count(*)} runs; the optional total is a planner
+     * estimate. Search matches the full-text vector like {@link #searchGames} but keeps
+     * rating order, relevance ranking can't be seeked on.
+     * <p>
+     * Genre filters intersect with the {@link GenreFacetIndex} bitmaps. When few games match
+     * they are looked up by id, otherwise pages are scanned in order and filtered in memory,
+     * at most {@code search.genre-filter.max-scanned-rows} rows per request, so a page may come
+     * back short with a cursor to continue from.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+     */
+    public GameScrollDTO scrollGames(String searchQuery, String cursor, int size, boolean includeTotal,
+                                     Collection<String> allGenres, Collection<String> anyGenres) {
+        SeekKey after = cursor == null || cursor.isBlank() ? SeekKey.FIRST : SeekKey.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        RoaringBitmap genreMatches = genreMatches(allGenres, anyGenres);
+
+        PageFetcher fetcher;
+        Supplier<Long> estimate;
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            if (genreMatches != null && genreMatches.getLongCardinality() <= maxGenreIdList) {
+                List<Long> ids = GenreFacetIndex.gameIds(genreMatches);
+                fetcher = (seek, count) -> ids.isEmpty() ? List.of()
+                        : gameRepository.findPageAfterIn(ids, seek.getRating(), seek.getId(), count);
+            } else {
+                fetcher = (seek, count) -> gameRepository.findPageAfter(seek.getRating(), seek.getId(), count);
+            }
+            estimate = gameEstimateRepository::estimateGames;
+        } else {
+            String tsQuery = toPrefixTsQuery(searchQuery);
+            String title = searchQuery.trim();
+            if (tsQuery.isEmpty()) {
+                fetcher = (seek, count) -> gameRepository.findByTitleContainingPageAfter(title,
+                        seek.getRating(), seek.getId(), count);
+                estimate = () -> gameEstimateRepository.estimateTitleMatches(title);
+            } else {
+                fetcher = (seek, count) -> gameRepository.searchPageAfter(tsQuery, seek.getRating(), seek.getId(), count);
+                estimate = () -> gameEstimateRepository.estimateSearchMatches(tsQuery);
+            }
+        }
+
+        GameScrollDTO page = genreMatches == null
+                ? fetchPage(fetcher, after, limit)
+                : scanPage(fetcher, genreMatches, after, limit);
+        if (includeTotal) {
+            long estimatedTotal = estimate.get();
+            if (genreMatches != null) {
+                estimatedTotal = Math.min(estimatedTotal, genreMatches.getLongCardinality());
+            }
+            page.setEstimatedTotal(estimatedTotal);
+        }
+        return page;
     }
 
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-        
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(
-                        dp[i - 1][j - 1] + (s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1),
-                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1)
-                    );
+    private static GameScrollDTO fetchPage(PageFetcher fetcher, SeekKey after, int limit) {
+        // One extra row tells whether another page follows
+        List<Game> games = fetcher.fetch(after, limit + 1);
+        String nextCursor = null;
+        if (games.size() > limit) {
+            games = games.subList(0, limit);
+            nextCursor = SeekKey.of(games.get(limit - 1)).encode();
+        }
+        return new GameScrollDTO(games, nextCursor, null);
+    }
+
+    // Filters rows in scroll order; a further match tells whether another page follows
+    private GameScrollDTO scanPage(PageFetcher fetcher, RoaringBitmap genreMatches, SeekKey after, int limit) {
+        List<Game> games = new ArrayList<>();
+        SeekKey seek = after;
+        for (int scanned = 0; scanned < maxGenreScannedRows; ) {
+            List<Game> batch = fetcher.fetch(seek, GENRE_SCAN_BATCH_SIZE);
+            for (Game game : batch) {
+                if (GenreFacetIndex.contains(genreMatches, game.getId())) {
+                    if (games.size() == limit) {
+                        return new GameScrollDTO(games, SeekKey.of(games.get(limit - 1)).encode(), null);
+                    }
+                    games.add(game);
                 }
+                seek = SeekKey.of(game);
             }
+            if (batch.size() < GENRE_SCAN_BATCH_SIZE) {
+                return new GameScrollDTO(games, null, null);
+            }
+            scanned += batch.size();
         }
-        
-        return dp[s1.length()][s2.length()];
+        // Scan budget spent, the next page resumes after the last row looked at
+        return new GameScrollDTO(games, seek.encode(), null);
     }
 
-    @Transactional
-    protected Game syncGameFromRawg(RawgGameDTO rawgGame) {
-        // Fetch detailed game information
-        final RawgGameDTO gameDetails;
-        RawgGameDTO details = rawgService.getGameDetails(rawgGame.getId());
-        if (details == null) {
-            log.warn("Could not fetch game details for game: {}", rawgGame.getName());
-            gameDetails = rawgGame; // Fallback to basic info
-        } else {
-            gameDetails = details;
+    // Games of the requested genres, or null when the genres don't filter
+    private RoaringBitmap genreMatches(Collection<String> allGenres, Collection<String> anyGenres) {
+        if (!GenreFacetIndex.hasGenres(allGenres, anyGenres)) {
+            return null;
+        }
+        return genreFacetIndex.filter(allGenres, anyGenres);
+    }
+
+    /**
+     * Ranked full-text search over title, genres and description, every word matched as a
+     * prefix. Queries with no indexable words (e.g. only non-Latin characters) fall back to a
+     * substring match on the title; queries no title matches word for word, typically
+     * misspellings, fall back to a trigram similarity search on the normalized title.
+     */
+    private Page<Game> findLocalMatches(String searchQuery, Pageable pageable) {
+        String tsQuery = toPrefixTsQuery(searchQuery);
+        if (tsQuery.isEmpty()) {
+            return gameRepository.findByTitleContainingIgnoreCase(searchQuery.trim(), pageable);
         }
+        Page<Game> ranked = gameRepository.searchRanked(tsQuery, pageable);
+        if (ranked.getTotalElements() > 0) {
+            return ranked;
+        }
+        // The threshold only lives as long as this transaction, so it is set on every search
+        titleSimilarityRepository.setWordSimilarityThreshold(trigramThreshold);
+        return gameRepository.searchByTrigram(searchQuery, pageable);
+    }
 
-        return gameRepository.findByApiIdAndSource(
-                        gameDetails.getId().toString(), GameSource.RAWG)
-                .map(existing -> updateGameFromRawg(existing, gameDetails))
-                .orElseGet(() -> createGameFromRawg(gameDetails));
+    // game_search_vector indexes the same normalized words (V17). TitleNormalizer leaves only
+    // [a-z0-9 ], so the words need no escaping inside to_tsquery
+    static String toPrefixTsQuery(String searchQuery) {
+        String normalized = TitleNormalizer.normalize(searchQuery);
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(normalized.split(" "))
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
-    private Game updateGameFromRawg(Game existing, RawgGameDTO rawgGame) {
-        existing.setTitle(rawgGame.getName());
-        existing.setSlug(generateSlug(rawgGame.getName()));
-        existing.setRating(rawgGame.getRating());
-        existing.setBackgroundImage(rawgGame.getBackgroundImage());
-        existing.setGenres(rawgGame.getGenres().stream()
-                .map(RawgGameDTO.Genre::getName)
-                .collect(Collectors.toSet()));
-        existing.setDescription(rawgGame.getDescription());
-        existing.setRawgLastUpdated(LocalDateTime.now());
-        return gameRepository.save(existing);
+    // The next rows after a seek key in scroll order
+    private interface PageFetcher {
+        List<Game> fetch(SeekKey after, int limit);
     }
 
-    private Game createGameFromRawg(RawgGameDTO rawgGame) {
-        String slug = generateSlug(rawgGame.getName());
-        Game game = Game.builder()
-                .title(rawgGame.getName())
-                .apiId(rawgGame.getId().toString())
-                .source(GameSource.RAWG)
-                .releaseDate(rawgGame.getReleaseDate())
-                .backgroundImage(rawgGame.getBackgroundImage())
-                .rating(rawgGame.getRating())
-                .slug(slug)
-                .genres(rawgGame.getGenres().stream()
-                        .map(RawgGameDTO.Genre::getName)
-                        .collect(Collectors.toSet()))
-                .description(rawgGame.getDescription())
-                .rawgLastUpdated(LocalDateTime.now())
-                .build();
-        return gameRepository.save(game);
+    /**
+     * Position of the last game of a scroll page, carried by clients as an opaque URL-safe token.
+     */
+    @lombok.Value
+    static class SeekKey {
+        // Sorts before every game
+        static final SeekKey FIRST = new SeekKey(Double.MAX_VALUE, Long.MAX_VALUE);
+
+        double rating;
+        long id;
+
+        static SeekKey of(Game game) {
+            return new SeekKey(game.getRating() != null ? game.getRating() : -1, game.getId());
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((rating + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SeekKey decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new SeekKey(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException e) {
+                // Also covers malformed Base64 and NumberFormatException
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
     }
 
-    private String generateSlug(String title) {
-        if (title == null) return "";
-        return title.toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-")
-                .trim();
+    @lombok.Value
+    public static class SearchResult {
+        Page<Game> games;
+        // RAWG is still being searched in the background, repeating the search may find more
+        boolean enrichmentPending;
     }
-}
\ No newline at end of file
+}
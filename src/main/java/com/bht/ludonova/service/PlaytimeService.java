@@ -0,0 +1,90 @@
+package com.bht.ludonova.service;
+
+import com.bht.ludonova.dto.playtime.PlaytimeTrendDTO;
+import com.bht.ludonova.model.enums.PlaytimeGranularity;
+import com.bht.ludonova.repository.PlaytimeHistoryRepository;
+import com.bht.ludonova.repository.PlaytimeHistoryRepository.TrendPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PlaytimeService {
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int PARTITIONS_AHEAD = 2;
+
+    private final PlaytimeHistoryRepository playtimeHistoryRepository;
+
+    public PlaytimeTrendDTO getUserTrend(Long userId, Long gameId, PlaytimeGranularity granularity,
+                                         LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveStart(granularity, from, end);
+        List<TrendPoint> points = playtimeHistoryRepository.findUserTrend(userId, gameId, granularity, start, end);
+        return toDTO(granularity, start, end, gameId, points);
+    }
+
+    public PlaytimeTrendDTO getGameTrend(Long gameId, PlaytimeGranularity granularity, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = resolveStart(granularity, from, end);
+        List<TrendPoint> points = playtimeHistoryRepository.findGameTrend(gameId, granularity, start, end);
+        return toDTO(granularity, start, end, gameId, points);
+    }
+
+    /**
+     * Keeps monthly {@code playtime_deltas} partitions created ahead of time, so new rows
+     * never land in the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${playtime.partition-maintenance.cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= PARTITIONS_AHEAD; i++) {
+            try {
+                playtimeHistoryRepository.createMonthlyPartition(month.plusMonths(i));
+            } catch (RuntimeException e) {
+                log.error("Failed to create playtime partition for {}: {}", month.plusMonths(i), e.getMessage());
+            }
+        }
+    }
+
+    private static LocalDate resolveStart(PlaytimeGranularity granularity, LocalDate from, LocalDate end) {
+        LocalDate start = from != null ? from
+                : granularity == PlaytimeGranularity.WEEK ? end.minusWeeks(12) : end.minusDays(30);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        // Weekly rollups are keyed by the Monday starting the week
+        return granularity == PlaytimeGranularity.WEEK
+                ? start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : start;
+    }
+
+    private static PlaytimeTrendDTO toDTO(PlaytimeGranularity granularity, LocalDate from, LocalDate to,
+                                          Long gameId, List<TrendPoint> points) {
+        return PlaytimeTrendDTO.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .gameId(gameId)
+                .totalMinutes(points.stream().mapToLong(TrendPoint::getMinutes).sum())
+                .points(points.stream()
+                        .map(point -> new PlaytimeTrendDTO.Point(point.getPeriodStart(), point.getMinutes()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
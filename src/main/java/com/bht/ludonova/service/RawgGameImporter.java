@@ -0,0 +1,142 @@
+package com.bht.ludonova.service;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.mapper.RawgGameMapper;
+import com.bht.ludonova.model.Game;
+import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.GameRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stores RAWG games found by a search or listing. Details are fetched in parallel, at most
+ * {@code rawg.details.concurrency} at a time and all within {@code rawg.details.deadline},
+ * then the games are saved in one batch. A game whose details fail or miss the deadline is
+ * stored from its summary, and a game that cannot be stored is skipped rather than failing
+ * the batch.
+ */
+@Slf4j
+@Component
+public class RawgGameImporter {
+    private final RawgService rawgService;
+    private final GameRepository gameRepository;
+    private final RawgGameMapper rawgGameMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int detailConcurrency;
+    private final Duration detailDeadline;
+
+    public RawgGameImporter(
+            RawgService rawgService,
+            GameRepository gameRepository,
+            RawgGameMapper rawgGameMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${rawg.details.concurrency:8}") int detailConcurrency,
+            @Value("${rawg.details.deadline:PT3S}") Duration detailDeadline) {
+        this.rawgService = rawgService;
+        this.gameRepository = gameRepository;
+        this.rawgGameMapper = rawgGameMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Callers may sit in a read-only transaction, the import writes in its own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.detailConcurrency = detailConcurrency;
+        this.detailDeadline = detailDeadline;
+    }
+
+    /**
+     * Creates the games that are new and refreshes the ones already stored.
+     */
+    public List<Game> importGames(List<RawgGameDTO> summaries) {
+        Map<Long, RawgGameDTO> byId = summaries.stream()
+                .collect(Collectors.toMap(RawgGameDTO::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        if (byId.isEmpty()) {
+            return List.of();
+        }
+
+        long deadline = System.nanoTime() + detailDeadline.toNanos();
+        List<RawgGameDTO> details = Flux.fromIterable(byId.values())
+                .flatMap(summary -> Mono.defer(() -> rawgService.getGameDetailsAsync(summary.getId())
+                                        .timeout(Duration.ofNanos(Math.max(1, deadline - System.nanoTime()))))
+                                .onErrorResume(e -> {
+                                    log.warn("Using summary data for game {}, details unavailable: {}",
+                                            summary.getName(), e.getMessage());
+                                    return Mono.empty();
+                                })
+                                .defaultIfEmpty(summary),
+                        detailConcurrency)
+                .collectList()
+                .block();
+
+        Set<String> apiIds = byId.keySet().stream().map(String::valueOf).collect(Collectors.toSet());
+        Map<String, Game> existing = gameRepository.findByApiIdInAndSource(apiIds, GameSource.RAWG).stream()
+                .collect(Collectors.toMap(Game::getApiId, Function.identity()));
+
+        List<Game> games = details.stream()
+                .map(rawgGame -> {
+                    Game game = existing.get(rawgGame.getId().toString());
+                    return game != null ? rawgGameMapper.applyTo(game, rawgGame) : rawgGameMapper.toNewGame(rawgGame);
+                })
+                .collect(Collectors.toList());
+        assignUniqueSlugs(games);
+        List<Game> newGames = games.stream().filter(game -> game.getId() == null).collect(Collectors.toList());
+        try {
+            return transactionTemplate.execute(status -> gameRepository.saveAll(games));
+        } catch (DataIntegrityViolationException e) {
+            // A row written concurrently since the checks above; store the others one by one
+            log.warn("Saving {} RAWG games as a batch failed, saving them one by one: {}", games.size(), e.getMessage());
+            // Undo what the rolled back persist left on the new games
+            newGames.forEach(game -> {
+                game.setId(null);
+                game.setGenres(new HashSet<>(game.getGenres()));
+            });
+            return saveEach(games);
+        }
+    }
+
+    private List<Game> saveEach(List<Game> games) {
+        List<Game> saved = new ArrayList<>();
+        for (Game game : games) {
+            try {
+                saved.add(transactionTemplate.execute(status -> gameRepository.save(game)));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Failed to save RAWG game {} ({}): {}", game.getTitle(), game.getApiId(), e.getMessage());
+            }
+        }
+        return saved;
+    }
+
+    // Steam and dump imports store title slugs too, so a new game whose slug is taken, or
+    // repeated within the batch, gets its RAWG id appended
+    private void assignUniqueSlugs(List<Game> games) {
+        List<Game> newGames = games.stream()
+                .filter(game -> game.getId() == null)
+                .collect(Collectors.toList());
+        if (newGames.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(gameRepository.findTakenSlugs(
+                newGames.stream().map(Game::getSlug).collect(Collectors.toSet())));
+        for (Game game : newGames) {
+            if (game.getSlug().isEmpty() || !taken.add(game.getSlug())) {
+                game.setSlug(RawgGameMapper.qualifySlug(game.getSlug(), game.getApiId()));
+                taken.add(game.getSlug());
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.bht.ludonova.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side rate control shared by every call on the RAWG {@code WebClient}, installed as an
+ * exchange filter. Requests are spaced by the current rate, which starts at
+ * {@code rawg.rate-limit.initial-rate}, is halved on every 429 (and paused for any
+ * {@code Retry-After}) and probes back up additively while calls succeed. Throttled, 5xx and
+ * connection failures are retried with jittered exponential backoff, as long as the retry
+ * budget, a fraction of recent requests, is not spent.
+ */
+@Slf4j
+@Component
+public class RawgRateLimiter {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final double minRate;
+    private final double maxRate;
+    private final double rateIncrease;
+    private final Duration maxQueueWait;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final double budgetRatio;
+    private final double maxBudget;
+
+    private double rate;
+    private long nextSlotNanos = System.nanoTime();
+    private double retryBudget;
+
+    private final Counter throttledCounter;
+    private final Counter retryCounter;
+    private final Counter budgetExhaustedCounter;
+    private final Counter rejectedCounter;
+
+    public RawgRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${rawg.rate-limit.initial-rate:5}") double initialRate,
+            @Value("${rawg.rate-limit.min-rate:0.2}") double minRate,
+            @Value("${rawg.rate-limit.max-rate:10}") double maxRate,
+            @Value("${rawg.rate-limit.rate-increase:0.5}") double rateIncrease,
+            @Value("${rawg.rate-limit.max-queue-wait:PT30S}") Duration maxQueueWait,
+            @Value("${rawg.retry.max-attempts:3}") int maxAttempts,
+            @Value("${rawg.retry.base-backoff:PT0.5S}") Duration baseBackoff,
+            @Value("${rawg.retry.max-backoff:PT10S}") Duration maxBackoff,
+            @Value("${rawg.retry.budget-ratio:0.1}") double budgetRatio,
+            @Value("${rawg.retry.max-budget:10}") double maxBudget) {
+        this.minRate = minRate;
+        this.maxRate = Math.max(minRate, maxRate);
+        this.rate = Math.min(this.maxRate, Math.max(minRate, initialRate));
+        this.rateIncrease = rateIncrease;
+        this.maxQueueWait = maxQueueWait;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.budgetRatio = budgetRatio;
+        this.maxBudget = maxBudget;
+        this.retryBudget = maxBudget;
+
+        Gauge.builder("ludonova.rawg.rate", this, RawgRateLimiter::getRate)
+                .description("Current RAWG request rate allowed by the limiter, per second")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("ludonova.rawg.throttled")
+                .description("RAWG responses with status 429")
+                .register(meterRegistry);
+        this.retryCounter = retryCounter(meterRegistry, "retried");
+        this.budgetExhaustedCounter = retryCounter(meterRegistry, "budget_exhausted");
+        this.rejectedCounter = Counter.builder("ludonova.rawg.rejected")
+                .description("RAWG calls rejected because the limiter queue was too long")
+                .register(meterRegistry);
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * Filter to install on the RAWG {@code WebClient}. A call that still fails after its retries
+     * ends with the usual {@link WebClientResponseException} or {@link WebClientRequestException}.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.defer(() -> acquire().then(next.exchange(request)))
+                .flatMap(response -> {
+                    HttpStatusCode status = response.statusCode();
+                    Duration retryAfter = capRetryAfter(retryAfter(response));
+                    onResponse(status, retryAfter);
+                    if (isRetryable(status)) {
+                        return response.releaseBody().then(Mono.error(new RetryableStatusException(status, retryAfter)));
+                    }
+                    return Mono.just(response);
+                })
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    Throwable failure = signal.failure();
+                    long attempt = signal.totalRetries() + 1;
+                    if (!(failure instanceof RetryableStatusException) && !(failure instanceof WebClientRequestException)) {
+                        return Mono.error(failure);
+                    }
+                    if (attempt >= maxAttempts) {
+                        return Mono.error(unwrap(failure));
+                    }
+                    if (!withdrawRetry()) {
+                        budgetExhaustedCounter.increment();
+                        return Mono.error(unwrap(failure));
+                    }
+                    retryCounter.increment();
+                    Duration retryAfter = failure instanceof RetryableStatusException retryable ? retryable.retryAfter : null;
+                    Duration backoff = backoff(attempt, retryAfter);
+                    log.debug("Retrying RAWG {} {} in {}ms (attempt {}): {}", request.method(), request.url().getPath(),
+                            backoff.toMillis(), attempt + 1, failure.getMessage());
+                    return Mono.delay(backoff);
+                })));
+    }
+
+    /**
+     * Reserves the next send slot, or fails if it is further away than the queue wait allows.
+     */
+    private Mono<Void> acquire() {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            waitNanos = slot - now;
+            if (waitNanos > maxQueueWait.toNanos()) {
+                rejectedCounter.increment();
+                return Mono.error(new RateLimitedException(Duration.ofNanos(waitNanos)));
+            }
+            nextSlotNanos = slot + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            retryBudget = Math.min(maxBudget, retryBudget + budgetRatio);
+        }
+        return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+    }
+
+    private synchronized void onResponse(HttpStatusCode status, Duration retryAfter) {
+        if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throttledCounter.increment();
+            rate = Math.max(minRate, rate / 2);
+            if (retryAfter != null) {
+                nextSlotNanos = Math.max(nextSlotNanos, System.nanoTime() + retryAfter.toNanos());
+            }
+            log.warn("RAWG throttled us, lowering rate to {}/s{}", String.format("%.2f", rate),
+                    retryAfter != null ? ", pausing " + retryAfter.toSeconds() + "s" : "");
+        } else if (!status.is5xxServerError()) {
+            // Spread over one second's worth of calls, so the rate grows by about rateIncrease per second
+            rate = Math.min(maxRate, rate + rateIncrease / rate);
+        }
+    }
+
+    private synchronized boolean withdrawRetry() {
+        if (retryBudget < 1) {
+            return false;
+        }
+        retryBudget -= 1;
+        return true;
+    }
+
+    private Duration backoff(long attempt, Duration retryAfter) {
+        long ceiling = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        Duration jittered = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        return retryAfter != null && retryAfter.compareTo(jittered) > 0 ? retryAfter : jittered;
+    }
+
+    // A server-supplied pause must not stall every RAWG call beyond what the limiter would wait on its own
+    private Duration capRetryAfter(Duration retryAfter) {
+        if (retryAfter == null) {
+            return null;
+        }
+        Duration cap = maxBackoff.compareTo(maxQueueWait) < 0 ? maxBackoff : maxQueueWait;
+        return retryAfter.compareTo(cap) > 0 ? cap : retryAfter;
+    }
+
+    private static boolean isRetryable(HttpStatusCode status) {
+        return status.value() == HttpStatus.TOO_MANY_REQUESTS.value() || status.is5xxServerError();
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        if (failure instanceof RetryableStatusException retryable) {
+            return WebClientResponseException.create(retryable.status.value(), "RAWG responded " + retryable.status,
+                    HttpHeaders.EMPTY, new byte[0], null);
+        }
+        return failure;
+    }
+
+    private static Duration retryAfter(ClientResponse response) {
+        String value = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), HTTP_DATE));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ludonova.rawg.retries")
+                .description("RAWG retries by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Thrown when a RAWG call would have to wait longer than {@code rawg.rate-limit.max-queue-wait}.
+     */
+    public static class RateLimitedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RateLimitedException(Duration wait) {
+            super("RAWG rate limit queue is full, next slot in " + wait.toMillis() + "ms");
+        }
+    }
+
+    private static final class RetryableStatusException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final HttpStatusCode status;
+        private final Duration retryAfter;
+
+        private RetryableStatusException(HttpStatusCode status, Duration retryAfter) {
+            super("RAWG responded " + status);
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bht.ludonova.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for RAWG calls: while a call for a key is in flight, every other caller
+ * asking for the same key subscribes to its result instead of starting its own request. The
+ * shared call is detached from its first subscriber, so one caller timing out or cancelling
+ * does not fail the others. Coalesced and executed calls are counted in
+ * {@code ludonova.rawg.calls} tagged {@code outcome=coalesced|executed}.
+ */
+@Component
+public class RawgRequestCoalescer {
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+
+    public RawgRequestCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${rawg.coalescing.max-wait:PT30S}") Duration maxWait) {
+        this.maxWait = maxWait;
+        this.executedCounter = Counter.builder("ludonova.rawg.calls")
+                .description("RAWG calls started by the single-flight guard")
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("ludonova.rawg.calls")
+                .description("RAWG calls served by joining an identical call already in flight")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("ludonova.rawg.calls.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct RAWG calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} for {@code key} unless an identical call is already running, in which
+     * case that call's result (value, empty or error) is shared.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(key, created);
+            if (running != null) {
+                coalescedCounter.increment();
+                return Mono.fromFuture(running, true).map(value -> (T) value);
+            }
+
+            executedCounter.increment();
+            created.whenComplete((value, error) -> inFlight.remove(key, created));
+            // Subscribed here rather than by the caller so the call outlives any single subscriber
+            Mono.defer(call)
+                    .timeout(maxWait)
+                    .subscribe(created::complete, created::completeExceptionally, () -> created.complete(null));
+            return Mono.fromFuture(created, true).map(value -> (T) value);
+        });
+    }
+}
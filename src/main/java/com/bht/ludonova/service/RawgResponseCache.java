@@ -0,0 +1,136 @@
+package com.bht.ludonova.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Size-bounded cache of RAWG API responses keyed by endpoint and normalized parameters.
+ * Each endpoint has its own TTL and empty responses are kept for the shorter
+ * {@code rawg.cache.ttl.empty}, so repeated searches for unknown titles don't reach RAWG
+ * but new releases still show up soon. Hit, miss and eviction counts are published as
+ * {@code cache.*} metrics tagged {@code cache=rawg}.
+ */
+@Component
+public class RawgResponseCache {
+
+    public enum Endpoint {
+        SEARCH,
+        DETAILS,
+        LIST
+    }
+
+    private final Cache<String, Entry> cache;
+    private final Map<Endpoint, Duration> ttls;
+    private final Duration emptyTtl;
+
+    public RawgResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${rawg.cache.max-size:5000}") long maxSize,
+            @Value("${rawg.cache.ttl.search:PT6H}") Duration searchTtl,
+            @Value("${rawg.cache.ttl.details:PT24H}") Duration detailsTtl,
+            @Value("${rawg.cache.ttl.list:PT6H}") Duration listTtl,
+            @Value("${rawg.cache.ttl.empty:PT15M}") Duration emptyTtl) {
+        this.ttls = Map.of(Endpoint.SEARCH, searchTtl, Endpoint.DETAILS, detailsTtl, Endpoint.LIST, listTtl);
+        this.emptyTtl = emptyTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rawg");
+    }
+
+    /**
+     * Returns the cached response for the endpoint and parameters immediately, otherwise the
+     * loader's result is cached once it arrives. Loader failures are not cached; concurrent
+     * misses are deduplicated by {@link RawgRequestCoalescer}, not here.
+     *
+     * @param isEmpty decides whether a loaded response counts as empty for negative caching
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(Endpoint endpoint, Map<String, ?> params, Supplier<Mono<T>> loader,
+                           Predicate<T> isEmpty) {
+        String key = key(endpoint, params);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.justOrEmpty((T) cached.value);
+        }
+        return Mono.defer(loader)
+                .doOnNext(value -> cache.put(key, new Entry(value, isEmpty.test(value) ? emptyTtl : ttls.get(endpoint))))
+                .doOnSuccess(value -> {
+                    if (value == null) {
+                        cache.put(key, new Entry(null, emptyTtl));
+                    }
+                });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Builds the cache key from the endpoint and its parameters sorted by name. String values
+     * are trimmed, lower-cased and whitespace-collapsed so "Zelda " and "zelda" share an entry;
+     * null parameters are dropped.
+     */
+    static String key(Endpoint endpoint, Map<String, ?> params) {
+        Map<String, String> normalized = new TreeMap<>();
+        params.forEach((name, value) -> {
+            if (value != null) {
+                normalized.put(name, normalize(value));
+            }
+        });
+        return endpoint + "?" + normalized.entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining("&"));
+    }
+
+    private static String normalize(Object value) {
+        if (value instanceof String text) {
+            return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+        return Objects.toString(value);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final Duration ttl;
+
+        private Entry(Object value, Duration ttl) {
+            this.value = value;
+            this.ttl = ttl;
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
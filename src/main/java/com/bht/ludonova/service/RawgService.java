@@ -2,31 +2,59 @@ package com.bht.ludonova.service;
 
 import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
 import com.bht.ludonova.dto.rawg.RawgGameDTO;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class RawgService {
     private final WebClient rawgWebClient;
     private final String apiKey;
-    private final ObjectMapper objectMapper;
+    // Built once, ObjectReaders are immutable and safe to share between calls
+    private final ObjectReader gameReader;
+    private final ObjectReader searchReader;
+    private final RawgResponseCache responseCache;
+    private final RawgRequestCoalescer coalescer;
 
     public RawgService(
             WebClient rawgWebClient,
             @Value("${rawg.api.key}") String apiKey,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            RawgResponseCache responseCache,
+            RawgRequestCoalescer coalescer) {
         this.rawgWebClient = rawgWebClient;
         this.apiKey = apiKey;
-        this.objectMapper = objectMapper;
+        this.gameReader = reader(objectMapper, RawgGameDTO.class);
+        this.searchReader = reader(objectMapper, RawgSearchResponseDTO.class);
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
     }
 
     public RawgSearchResponseDTO searchGames(String query, int page) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("search", query);
+        params.put("page", page);
+        return fetch(RawgResponseCache.Endpoint.SEARCH, params,
+                () -> fetchSearchResults(query, page), RawgService::hasNoResults).block();
+    }
+
+    private Mono<RawgSearchResponseDTO> fetchSearchResults(String query, int page) {
         return rawgWebClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/games")
@@ -36,101 +64,129 @@ public class RawgService {
                         .queryParam("page_size", 20)
                         .build())
                 .retrieve()
-                .bodyToMono(RawgSearchResponseDTO.class)
-                .block();
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> decode(body, searchReader, "search results"));
     }
 
     public RawgGameDTO getGameDetails(Long gameId) {
-        log.debug("Fetching game details from RAWG for game ID: {}", gameId);
         try {
-            String response = rawgWebClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/games/{id}")
-                            .queryParam("key", apiKey)
-                            .build(gameId))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.debug("Raw RAWG API response for game details: {}", response);
-
-            if (response == null) {
-                log.error("Received null response from RAWG API for game details");
-                return null;
-            }
-
-            try {
-                objectMapper.findAndRegisterModules(); // This helps with date handling
-                return objectMapper.readValue(response, RawgGameDTO.class);
-            } catch (JsonProcessingException e) {
-                log.error("Failed to parse RAWG API game details response: {}", e.getMessage());
-                log.error("Raw response was: {}", response);
-                throw new RuntimeException("Failed to parse RAWG API game details response", e);
-            }
+            return getGameDetailsAsync(gameId).block();
         } catch (Exception e) {
             log.error("Failed to fetch game details from RAWG: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch game details from RAWG", e);
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #getGameDetails(Long)} sharing the same response cache,
+     * used to fan out detail lookups in parallel.
+     */
+    public Mono<RawgGameDTO> getGameDetailsAsync(Long gameId) {
+        return fetch(RawgResponseCache.Endpoint.DETAILS, Map.of("id", gameId),
+                () -> fetchGameDetails(gameId), details -> false);
+    }
+
+    private Mono<RawgGameDTO> fetchGameDetails(Long gameId) {
+        log.debug("Fetching game details from RAWG for game ID: {}", gameId);
+        return rawgWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/games/{id}")
+                        .queryParam("key", apiKey)
+                        .build(gameId))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> decode(body, gameReader, "game details"));
+    }
+
     public RawgSearchResponseDTO listGames(int page, String ordering, String platforms, Integer pageSize,
                                          String minRatings, String minRating) {
-        log.debug("Fetching games from RAWG - page: {}, ordering: {}, platforms: {}, pageSize: {}, minRatings: {}, minRating: {}", 
-            page, ordering, platforms, pageSize, minRatings, minRating);
-
+        Map<String, Object> params = new HashMap<>();
+        params.put("page", page);
+        params.put("ordering", ordering);
+        params.put("platforms", platforms);
+        params.put("page_size", pageSize != null ? pageSize : 20);
+        params.put("ratings_count", minRatings);
+        params.put("metacritic", minRating);
         try {
-            String response = rawgWebClient.get()
-                    .uri(uriBuilder -> {
-                        var builder = uriBuilder
-                                .path("/games")
-                                .queryParam("key", apiKey)
-                                .queryParam("page", page)
-                                .queryParam("page_size", pageSize != null ? pageSize : 20);
-
-                        if (ordering != null) {
-                            builder.queryParam("ordering", ordering);
-                        }
-
-                        if (platforms != null) {
-                            builder.queryParam("platforms", platforms);
-                        }
-
-                        // Add quality filters
-                        if (minRatings != null) {
-                            builder.queryParam("ratings_count", minRatings);
-                        }
-
-                        if (minRating != null) {
-                            builder.queryParam("metacritic", minRating);
-                        }
-
-                        return builder.build();
-                    })
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.debug("Raw RAWG API response: {}", response);
-
-            if (response == null) {
-                log.error("Received null response from RAWG API");
-                return null;
-            }
-
-            try {
-                objectMapper.findAndRegisterModules(); // This helps with date handling
-                return objectMapper.readValue(response, RawgSearchResponseDTO.class);
-            } catch (JsonProcessingException e) {
-                log.error("Failed to parse RAWG API response: {}", e.getMessage());
-                log.error("Raw response was: {}", response);
-                throw new RuntimeException("Failed to parse RAWG API response", e);
-            }
+            return fetch(RawgResponseCache.Endpoint.LIST, params,
+                    () -> fetchGameList(page, ordering, platforms, pageSize, minRatings, minRating),
+                    RawgService::hasNoResults).block();
         } catch (Exception e) {
             log.error("Failed to fetch games from RAWG: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch games from RAWG", e);
         }
     }
 
+    private Mono<RawgSearchResponseDTO> fetchGameList(int page, String ordering, String platforms, Integer pageSize,
+                                                      String minRatings, String minRating) {
+        log.debug("Fetching games from RAWG - page: {}, ordering: {}, platforms: {}, pageSize: {}, minRatings: {}, minRating: {}", 
+            page, ordering, platforms, pageSize, minRatings, minRating);
+
+        return rawgWebClient.get()
+                .uri(uriBuilder -> {
+                    var builder = uriBuilder
+                            .path("/games")
+                            .queryParam("key", apiKey)
+                            .queryParam("page", page)
+                            .queryParam("page_size", pageSize != null ? pageSize : 20);
+
+                    if (ordering != null) {
+                        builder.queryParam("ordering", ordering);
+                    }
+
+                    if (platforms != null) {
+                        builder.queryParam("platforms", platforms);
+                    }
+
+                    // Add quality filters
+                    if (minRatings != null) {
+                        builder.queryParam("ratings_count", minRatings);
+                    }
+
+                    if (minRating != null) {
+                        builder.queryParam("metacritic", minRating);
+                    }
+
+                    return builder.build();
+                })
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> decode(body, searchReader, "game list"));
+    }
+
+    static ObjectReader reader(ObjectMapper objectMapper, Class<?> type) {
+        return objectMapper.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Decodes the joined response buffers straight into the target type, releasing them afterwards.
+     */
+    static <T> Mono<T> decode(Flux<DataBuffer> body, ObjectReader reader, String what) {
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    try (InputStream input = buffer.asInputStream(true)) {
+                        return reader.<T>readValue(input);
+                    } catch (IOException e) {
+                        log.error("Failed to parse RAWG API {} response: {}", what, e.getMessage());
+                        throw new RuntimeException("Failed to parse RAWG API " + what + " response", e);
+                    }
+                });
+    }
+
+    /**
+     * Reads through the response cache; only on a miss do identical concurrent calls share one
+     * request, so cache hits never reach the coalescer or its metrics.
+     */
+    private <T> Mono<T> fetch(RawgResponseCache.Endpoint endpoint, Map<String, ?> params,
+                              Supplier<Mono<T>> loader, Predicate<T> isEmpty) {
+        String key = RawgResponseCache.key(endpoint, params);
+        return Mono.defer(() -> responseCache.get(endpoint, params, () -> coalescer.execute(key, loader), isEmpty));
+    }
+
+    private static boolean hasNoResults(RawgSearchResponseDTO response) {
+        return response.getResults() == null || response.getResults().isEmpty();
+    }
+
     // Keep the old method for backward compatibility
     public RawgSearchResponseDTO listGames(int page, String ordering, String platforms, Integer pageSize) {
         return listGames(page, ordering, platforms, pageSize, null, null);
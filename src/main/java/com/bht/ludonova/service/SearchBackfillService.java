@@ -0,0 +1,206 @@
+package com.bht.ludonova.service;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
+import com.bht.ludonova.model.Game;
+import com.bht.ludonova.repository.TitleSimilarityRepository;
+import com.bht.ludonova.util.TitleNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fills the local catalog from RAWG for searches that found too few local games. In async
+ * mode searches only submit their query here and return right away; a background worker
+ * drains the queue at {@code rawg.search.backfill.request-interval} with bounded
+ * concurrency. Queries are deduplicated by their normalized form while queued and for
+ * {@code rawg.search.backfill.dedup-ttl} after they were backfilled, so a burst of identical
+ * searches costs one RAWG round.
+ */
+@Slf4j
+@Service
+public class SearchBackfillService {
+    private final RawgService rawgService;
+    private final RawgGameImporter gameImporter;
+    private final TitleSimilarityRepository titleSimilarityRepository;
+    private final double matchThreshold;
+    private final boolean async;
+    private final int concurrency;
+    private final Duration requestInterval;
+    private final int maxQueued;
+
+    // Normalized queries waiting for or being backfilled
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Normalized queries backfilled recently, a repeat would find nothing new on RAWG
+    private final Cache<String, Boolean> recentlyBackfilled;
+    private final Sinks.Many<String> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Counter queuedCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private Disposable worker;
+
+    public SearchBackfillService(
+            RawgService rawgService,
+            RawgGameImporter gameImporter,
+            TitleSimilarityRepository titleSimilarityRepository,
+            MeterRegistry meterRegistry,
+            @Value("${rawg.search.backfill.async:true}") boolean async,
+            @Value("${rawg.search.backfill.concurrency:2}") int concurrency,
+            @Value("${rawg.search.backfill.request-interval:PT0.5S}") Duration requestInterval,
+            @Value("${rawg.search.backfill.max-queued:500}") int maxQueued,
+            @Value("${rawg.search.backfill.dedup-ttl:PT15M}") Duration dedupTtl,
+            @Value("${rawg.search.match-threshold:0.6}") double matchThreshold) {
+        this.rawgService = rawgService;
+        this.gameImporter = gameImporter;
+        this.titleSimilarityRepository = titleSimilarityRepository;
+        this.matchThreshold = matchThreshold;
+        this.async = async;
+        this.concurrency = concurrency;
+        this.requestInterval = requestInterval;
+        this.maxQueued = maxQueued;
+        this.recentlyBackfilled = Caffeine.newBuilder()
+                .expireAfterWrite(dedupTtl)
+                .maximumSize(10_000)
+                .build();
+
+        this.queuedCounter = backfillCounter(meterRegistry, "queued");
+        this.deduplicatedCounter = backfillCounter(meterRegistry, "deduplicated");
+        this.droppedCounter = backfillCounter(meterRegistry, "dropped");
+        this.failedCounter = backfillCounter(meterRegistry, "failed");
+        Gauge.builder("ludonova.search.backfill.pending", pending, Set::size)
+                .description("Search queries waiting for or being backfilled from RAWG")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startWorker() {
+        worker = queue.asFlux()
+                .delayElements(requestInterval)
+                .flatMap(query -> Mono.fromRunnable(() -> backfillQueued(query))
+                        .subscribeOn(Schedulers.boundedElastic()), concurrency)
+                .subscribe(null, e -> log.error("Search backfill worker stopped", e));
+    }
+
+    @PreDestroy
+    void stopWorker() {
+        worker.dispose();
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Queues a RAWG backfill for the query unless an identical one is queued, running or was
+     * done recently.
+     *
+     * @return whether a backfill for the query is now pending
+     */
+    public boolean submit(String query) {
+        String key = TitleNormalizer.normalize(query);
+        if (key.isEmpty() || recentlyBackfilled.getIfPresent(key) != null) {
+            return false;
+        }
+        if (!pending.add(key)) {
+            deduplicatedCounter.increment();
+            return true;
+        }
+        if (pending.size() > maxQueued) {
+            pending.remove(key);
+            droppedCounter.increment();
+            log.warn("Search backfill queue is full, dropping query '{}'", query);
+            return false;
+        }
+        queuedCounter.increment();
+        queue.emitNext(query.trim(), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        return true;
+    }
+
+    /**
+     * Searches the first two RAWG pages for the query and stores the close matches, blocking
+     * until they are saved.
+     */
+    public List<Game> backfill(String query) {
+        List<RawgGameDTO> matches = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            matches.addAll(findRawgMatches(query, i));
+        }
+        List<Game> games = gameImporter.importGames(matches);
+        recentlyBackfilled.put(TitleNormalizer.normalize(query), Boolean.TRUE);
+        return games;
+    }
+
+    private void backfillQueued(String query) {
+        try {
+            List<Game> games = backfill(query);
+            log.debug("Backfilled {} games from RAWG for search '{}'", games.size(), query);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Search backfill for '{}' failed: {}", query, e.getMessage());
+        } finally {
+            pending.remove(TitleNormalizer.normalize(query));
+        }
+    }
+
+    private List<RawgGameDTO> findRawgMatches(String query, int page) {
+        RawgSearchResponseDTO searchResponse = rawgService.searchGames(query, page);
+        if (searchResponse == null || searchResponse.getResults() == null) {
+            return List.of();
+        }
+        // Same keys as the dedup, tsquery and trigram paths, so accents and symbols don't matter
+        String normalizedQuery = TitleNormalizer.normalize(query);
+        List<RawgGameDTO> matches = new ArrayList<>();
+        List<RawgGameDTO> fuzzyCandidates = new ArrayList<>();
+        // Only sync games that are exact or very close matches
+        for (RawgGameDTO rawgGame : searchResponse.getResults()) {
+            String normalizedTitle = TitleNormalizer.normalize(rawgGame.getName());
+            if (normalizedTitle.isEmpty()) {
+                continue;
+            }
+            if (normalizedTitle.equals(normalizedQuery)) {
+                matches.add(rawgGame);
+            } else if (normalizedQuery.length() >= 5 && (
+                    normalizedTitle.contains(normalizedQuery) ||
+                    normalizedQuery.contains(normalizedTitle))) {
+                // Contains match (only if the query is at least 5 characters)
+                matches.add(rawgGame);
+            } else if (normalizedQuery.length() >= 8) {
+                // Fuzzy match for longer queries, all candidates of the page in one round trip
+                fuzzyCandidates.add(rawgGame);
+            }
+        }
+        if (!fuzzyCandidates.isEmpty()) {
+            Set<String> similar = titleSimilarityRepository.findSimilar(query,
+                    fuzzyCandidates.stream().map(RawgGameDTO::getName).toList(), matchThreshold);
+            fuzzyCandidates.stream()
+                    .filter(rawgGame -> similar.contains(rawgGame.getName()))
+                    .forEach(matches::add);
+        }
+        return matches;
+    }
+
+    private static Counter backfillCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ludonova.search.backfill")
+                .description("Search backfill requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bht.ludonova.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the most searched titles in the local catalog. Every {@code search.warm.interval} the
+ * top {@code search.warm.top-k} queries of the {@link SearchQueryLog} are handed to the search
+ * backfill worker, which fetches both RAWG result pages and stores the matches, so the hot set
+ * is answered from local data. The backfill worker's rate limiting and deduplication apply.
+ */
+@Slf4j
+@Component
+public class SearchCacheWarmer {
+    private final SearchQueryLog queryLog;
+    private final SearchBackfillService searchBackfillService;
+    private final boolean enabled;
+    private final int topK;
+    private final Counter submittedCounter;
+
+    public SearchCacheWarmer(
+            SearchQueryLog queryLog,
+            SearchBackfillService searchBackfillService,
+            MeterRegistry meterRegistry,
+            @Value("${search.warm.enabled:true}") boolean enabled,
+            @Value("${search.warm.top-k:200}") int topK) {
+        this.queryLog = queryLog;
+        this.searchBackfillService = searchBackfillService;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.submittedCounter = Counter.builder("ludonova.search.warm.submitted")
+                .description("Hot search queries handed to the backfill worker by the warmer")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${search.warm.interval:PT10M}", initialDelayString = "${search.warm.initial-delay:PT2M}")
+    public void warmHotQueries() {
+        if (!enabled) {
+            return;
+        }
+        List<String> hot = queryLog.topQueries(topK);
+        int submitted = 0;
+        for (String query : hot) {
+            if (searchBackfillService.submit(query)) {
+                submitted++;
+            }
+        }
+        queryLog.markWarmed(hot);
+        submittedCounter.increment(submitted);
+        if (submitted > 0) {
+            log.debug("Warming {} of the {} hottest search queries", submitted, hot.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.query-log.decay-interval:PT1H}",
+            initialDelayString = "${search.query-log.decay-interval:PT1H}")
+    public void decayQueryLog() {
+        queryLog.decay();
+    }
+}
@@ -0,0 +1,146 @@
+package com.bht.ludonova.service;
+
+import com.bht.ludonova.util.TitleNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate frequencies of game search queries. Counts live in a count-min sketch keyed by
+ * the normalized query, so memory is fixed however many distinct queries arrive; a bounded
+ * set of candidates keeps the original text of recent queries for {@link #topQueries}.
+ * Counts are halved by {@link #decay()} so the hot set follows what users search for now.
+ * <p>
+ * Searches for queries the warmer has pre-fetched are counted as
+ * {@code ludonova.search.warm{outcome=hit|miss}}, a hit being a search answered from local data.
+ */
+@Component
+public class SearchQueryLog {
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int width;
+    private final int maxCandidates;
+    private final AtomicLongArray[] rows = new AtomicLongArray[DEPTH];
+    // Normalized query -> original text of the most recent search for it
+    private final Map<String, String> candidates = new ConcurrentHashMap<>();
+    private volatile Set<String> warmed = Set.of();
+
+    private final Counter warmHitCounter;
+    private final Counter warmMissCounter;
+
+    public SearchQueryLog(
+            MeterRegistry meterRegistry,
+            @Value("${search.query-log.width:4096}") int width,
+            @Value("${search.query-log.max-candidates:1000}") int maxCandidates) {
+        this.width = width;
+        this.maxCandidates = maxCandidates;
+        for (int i = 0; i < DEPTH; i++) {
+            rows[i] = new AtomicLongArray(width);
+        }
+
+        this.warmHitCounter = warmCounter(meterRegistry, "hit");
+        this.warmMissCounter = warmCounter(meterRegistry, "miss");
+        Gauge.builder("ludonova.search.warm.hit-ratio", this, SearchQueryLog::warmHitRatio)
+                .description("Share of searches for warmed queries answered from local data")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param servedLocally whether the search was answered without waiting for RAWG
+     */
+    public void record(String query, boolean servedLocally) {
+        String key = TitleNormalizer.normalize(query);
+        if (key.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < DEPTH; i++) {
+            rows[i].incrementAndGet(index(key, i));
+        }
+        // Up to twice the tracked size may pile up between two trims in topQueries
+        if (candidates.size() < maxCandidates * 2 || candidates.containsKey(key)) {
+            candidates.put(key, query.trim());
+        }
+        if (warmed.contains(key)) {
+            (servedLocally ? warmHitCounter : warmMissCounter).increment();
+        }
+    }
+
+    public long estimate(String query) {
+        return count(TitleNormalizer.normalize(query));
+    }
+
+    private long count(String key) {
+        long count = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            count = Math.min(count, rows[i].get(index(key, i)));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the original text of the {@code k} most frequent queries, most frequent first,
+     * and drops candidates that have fallen out of the tracked set.
+     */
+    public List<String> topQueries(int k) {
+        List<Map.Entry<String, Long>> ranked = candidates.keySet().stream()
+                .map(key -> Map.entry(key, count(key)))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .collect(Collectors.toList());
+        ranked.stream().skip(maxCandidates).forEach(entry -> candidates.remove(entry.getKey()));
+        return ranked.stream()
+                .limit(k)
+                .map(entry -> candidates.get(entry.getKey()))
+                .filter(query -> query != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the set of queries whose searches count towards the warm hit ratio.
+     */
+    public void markWarmed(Collection<String> queries) {
+        warmed = queries.stream().map(TitleNormalizer::normalize).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Halves every count and forgets candidates that dropped to zero.
+     */
+    public void decay() {
+        for (AtomicLongArray row : rows) {
+            for (int i = 0; i < width; i++) {
+                row.updateAndGet(i, count -> count >> 1);
+            }
+        }
+        candidates.keySet().removeIf(key -> count(key) == 0);
+    }
+
+    private double warmHitRatio() {
+        double hits = warmHitCounter.count();
+        double total = hits + warmMissCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    private int index(String key, int row) {
+        long hash = key.hashCode() * SEEDS[row];
+        hash ^= hash >>> 31;
+        return (int) Math.floorMod(hash, (long) width);
+    }
+
+    private static Counter warmCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ludonova.search.warm")
+                .description("Searches for warmed queries by whether they were answered from local data")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
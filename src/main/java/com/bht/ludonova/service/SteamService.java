@@ -1,6 +1,5 @@
 package com.bht.ludonova.service;
 
-import com.bht.ludonova.dto.steam.SteamApiResponseDTO;
 import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
 import com.bht.ludonova.exception.SteamAuthenticationException;
 import com.bht.ludonova.model.Game;
@@ -10,26 +9,35 @@ import com.bht.ludonova.model.User;
 import com.bht.ludonova.model.enums.GameSource;
 import com.bht.ludonova.model.enums.GameStatus;
 import com.bht.ludonova.repository.GameInstanceRepository;
+import com.bht.ludonova.repository.GameMetadataRepository.SteamGameRef;
 import com.bht.ludonova.repository.GameRepository;
+import com.bht.ludonova.repository.GameResolutionRepository;
+import com.bht.ludonova.service.catalog.GameEntityResolver;
+import com.bht.ludonova.service.steam.SteamApiQuota;
+import com.bht.ludonova.service.steam.SteamGamesCreatedEvent;
+import com.bht.ludonova.service.steam.SteamLibrarySyncEngine;
+import com.bht.ludonova.service.steam.SteamOwnedGamesDecoder;
+import com.bht.ludonova.service.steam.SteamPlayerSummaryService;
+import com.bht.ludonova.service.steam.SteamSyncProgress;
+import com.bht.ludonova.service.steam.SteamSyncResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.IntConsumer;
 
 @Slf4j
 @Service
@@ -38,102 +46,49 @@ public class SteamService {
     private String steamApiKey;
 
     private final WebClient steamApiClient;
-    private final WebClient openIdClient;
     private final GameRepository gameRepository;
     private final GameInstanceRepository gameInstanceRepository;
-    private final ObjectMapper objectMapper;
-
-    public SteamService(GameRepository gameRepository, GameInstanceRepository gameInstanceRepository, ObjectMapper objectMapper) {
+    private final SteamLibrarySyncEngine syncEngine;
+    private final SteamOwnedGamesDecoder ownedGamesDecoder;
+    private final SteamApiQuota steamApiQuota;
+    private final SteamPlayerSummaryService playerSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameResolutionRepository resolutionRepository;
+    private final GameEntityResolver entityResolver;
+
+    public SteamService(GameRepository gameRepository, GameInstanceRepository gameInstanceRepository,
+                        SteamLibrarySyncEngine syncEngine, SteamOwnedGamesDecoder ownedGamesDecoder,
+                        SteamApiQuota steamApiQuota, SteamPlayerSummaryService playerSummaryService,
+                        ApplicationEventPublisher eventPublisher, GameResolutionRepository resolutionRepository,
+                        GameEntityResolver entityResolver,
+                        @Value("${steam.api.base-url:https://api.steampowered.com}") String steamApiBaseUrl) {
         this.gameRepository = gameRepository;
         this.gameInstanceRepository = gameInstanceRepository;
-        this.objectMapper = objectMapper;
+        this.syncEngine = syncEngine;
+        this.ownedGamesDecoder = ownedGamesDecoder;
+        this.steamApiQuota = steamApiQuota;
+        this.playerSummaryService = playerSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.resolutionRepository = resolutionRepository;
+        this.entityResolver = entityResolver;
         this.steamApiClient = WebClient.builder()
-                .baseUrl("https://api.steampowered.com")
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
-                .build();
-
-        this.openIdClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .baseUrl(steamApiBaseUrl)
                 .build();
     }
 
-    public boolean validateSteamResponse(Map<String, String> params) {
-        try {
-            log.info("Validating Steam response with params: {}", params);
-            String url = "https://steamcommunity.com/openid/login";
-
-            // Create a new map with check_authentication mode
-            Map<String, String> validationParams = new HashMap<>(params);
-            validationParams.put("openid.mode", "check_authentication");
-
-            // Convert map to form data
-            String formData = validationParams.entrySet().stream()
-                    .map(entry -> entry.getKey() + "=" + encodeValue(entry.getValue()))
-                    .collect(Collectors.joining("&"));
-
-            String responseBody = openIdClient.post()
-                    .uri(url)
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .bodyValue(formData)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("Steam validation response: {}", responseBody);
-            return responseBody != null && responseBody.contains("is_valid:true");
-        } catch (Exception e) {
-            log.error("Error validating Steam response", e);
-            return false;
-        }
-    }
-
+    /**
+     * Looks up the Steam persona through the batched, cached player summary service.
+     */
     public SteamUser fetchUserDetails(String steamId) {
-        String url = "/ISteamUser/GetPlayerSummaries/v2/";
-
-        try {
-            SteamApiResponseDTO dto = steamApiClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(url)
-                            .queryParam("key", steamApiKey)
-                            .queryParam("steamids", steamId)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(SteamApiResponseDTO.class)
-                    .block();
-
-            if (dto != null && dto.getResponse() != null && !dto.getResponse().getPlayers().isEmpty()) {
-                SteamApiResponseDTO.Player player = dto.getResponse().getPlayers().get(0);
-                return mapToSteamUser(player);
-            }
-
-            throw new SteamAuthenticationException("Failed to fetch Steam user details");
-
-        } catch (Exception e) {
-            log.error("Error fetching Steam user details", e);
-            throw new SteamAuthenticationException("Failed to fetch Steam user details");
-        }
-    }
-
-    private SteamUser mapToSteamUser(SteamApiResponseDTO.Player player) {
-        SteamUser steamUser = new SteamUser();
-        steamUser.setSteamId(player.getSteamId());
-        steamUser.setPersonaName(player.getPersonaName());
-        steamUser.setProfileUrl(player.getProfileUrl());
-        steamUser.setAvatarUrl(player.getAvatarUrl());
-        return steamUser;
-    }
-
-    private String encodeValue(String value) {
-        try {
-            return URLEncoder.encode(value, StandardCharsets.UTF_8.toString());
-        } catch (UnsupportedEncodingException e) {
-            log.error("Error encoding value", e);
-            return value;
-        }
+        return playerSummaryService.getPlayerSummary(steamId);
     }
 
-    @Transactional
-    public void syncSteamLibrary(User user) {
+    /**
+     * Streams the user's owned games into the bulk sync engine as they are decoded.
+     * Intentionally not transactional: the engine commits chunk by chunk so no
+     * connection is held while waiting on the Steam API.
+     */
+    public SteamSyncResult syncSteamLibrary(User user, SteamSyncProgress progress) {
         if (user.getSteamUser() == null) {
             log.error("User {} attempted to sync Steam library but is not connected to Steam", user.getUsername());
             throw new SteamAuthenticationException("User is not connected to Steam");
@@ -149,68 +104,56 @@ public class SteamService {
         }
 
         try {
-            // Make the request to Steam API
-            String url = "/IPlayerService/GetOwnedGames/v1/";
-            var responseSpec = steamApiClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(url)
-                            .queryParam("key", steamApiKey)
-                            .queryParam("steamid", steamId)
-                            .queryParam("include_appinfo", true)
-                            .queryParam("include_played_free_games", true)
-                            .build());
-
-            // Get the raw response and log it
-            String rawResponse = responseSpec
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("Raw Steam API response received, parsing...");
-
-            // Parse the response using ObjectMapper
-            SteamGamesResponseDTO steamGames = objectMapper.readValue(rawResponse, SteamGamesResponseDTO.class);
-
-            if (steamGames == null || steamGames.getResponse() == null) {
-                log.error("Failed to parse Steam games response for user: {}", user.getUsername());
-                throw new SteamAuthenticationException("Failed to parse Steam games response");
-            }
-
-            log.info("Found {} games in Steam library for user: {}", 
-                steamGames.getResponse().getGameCount(), user.getUsername());
-
-            // Process each game
-            for (SteamGamesResponseDTO.Game steamGame : steamGames.getResponse().getGames()) {
-                try {
-                    log.debug("Processing game: {} (App ID: {})", steamGame.getName(), steamGame.getAppId());
-                    
-                    // Find or create the game
-                    Game game = findOrCreateGame(steamGame);
-                    log.debug("Game record processed: {} (ID: {})", game.getTitle(), game.getId());
-                    
-                    // Create or update the game instance
-                    GameInstance gameInstance = findOrCreateGameInstance(user, game, steamGame);
-                    log.debug("Game instance processed: {} for user {}", game.getTitle(), user.getUsername());
-                    
-                } catch (Exception e) {
-                    log.error("Error processing game {} for user {}: {}", 
-                        steamGame.getName(), user.getUsername(), e.getMessage());
-                    // Continue with next game even if one fails
-                }
-            }
-
-            log.info("Successfully completed Steam library sync for user: {}", user.getUsername());
-
+            // Sync jobs run on their own executor and may wait for the per-second budget
+            steamApiQuota.acquire();
+            Flux<SteamGamesResponseDTO.Game> games = streamOwnedGames(steamId, gameCount -> {
+                log.info("Found {} games in Steam library for user: {}", gameCount, user.getUsername());
+                progress.onLibraryFetched(gameCount);
+            });
+            SteamSyncResult result = syncEngine.sync(user.getId(), games, progress);
+
+            log.info("Completed Steam library sync for user {}: {} created, {} updated, {} unchanged, {} failed",
+                user.getUsername(), result.getCreated(), result.getUpdated(), result.getUnchanged(), result.getFailed());
+            return result;
+
+        } catch (SteamAuthenticationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error during Steam sync for user: {}", user.getUsername(), e);
             throw new SteamAuthenticationException("An error occurred during Steam sync: " + e.getMessage());
         }
     }
 
+    // Callers take the call from the SteamApiQuota first
+    private Flux<SteamGamesResponseDTO.Game> streamOwnedGames(String steamId, IntConsumer onGameCount) {
+        Flux<DataBuffer> body = steamApiClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/IPlayerService/GetOwnedGames/v1/")
+                        .queryParam("key", steamApiKey)
+                        .queryParam("steamid", steamId)
+                        .queryParam("include_appinfo", true)
+                        .queryParam("include_played_free_games", true)
+                        .build())
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        return ownedGamesDecoder.decode(body, onGameCount);
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     protected Game findOrCreateGame(SteamGamesResponseDTO.Game steamGame) {
+        String appId = steamGame.getAppId().toString();
+        Optional<Long> canonicalId = resolutionRepository.findAliasedGameId(GameSource.STEAM, appId)
+                .or(() -> entityResolver.resolve(steamGame.getName(), null, GameSource.STEAM));
+        if (canonicalId.isPresent()) {
+            Optional<Game> canonical = gameRepository.findById(canonicalId.get());
+            if (canonical.isPresent()) {
+                resolutionRepository.saveAliases(GameSource.STEAM, Map.of(appId, canonical.get().getId()));
+                return canonical.get();
+            }
+        }
+
         return gameRepository.findByApiIdAndSource(
-                steamGame.getAppId().toString(), 
+                appId,
                 GameSource.STEAM
         ).orElseGet(() -> {
             Game game = new Game();
@@ -222,7 +165,10 @@ public class SteamService {
             game.setSlug(steamGame.getName().toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
                 .replaceAll("\\s+", "-"));
-            return gameRepository.save(game);
+            Game saved = gameRepository.save(game);
+            eventPublisher.publishEvent(new SteamGamesCreatedEvent(
+                    List.of(new SteamGameRef(saved.getId(), saved.getApiId(), saved.getTitle()))));
+            return saved;
         });
     }
 
@@ -265,64 +211,6 @@ public class SteamService {
             game.getTitle(), user.getUsername());
     }
 
-    private SteamGamesResponseDTO fetchSteamGames(String steamId) {
-        String url = "/IPlayerService/GetOwnedGames/v1/";
-        log.info("Fetching Steam games for Steam ID: {}", steamId);
-
-        try {
-            // Log the request URL with redacted API key
-            var debugUri = steamApiClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(url)
-                            .queryParam("key", "REDACTED")
-                            .queryParam("steamid", steamId)
-                            .queryParam("include_appinfo", true)
-                            .queryParam("include_played_free_games", true)
-                            .build())
-                    .toString();
-            log.info("Steam API request URL: {}", debugUri);
-
-            // Log API key length for debugging (don't log the actual key)
-            log.info("Steam API key length: {}", steamApiKey != null ? steamApiKey.length() : 0);
-
-            // Make the actual request
-            var responseSpec = steamApiClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(url)
-                            .queryParam("key", steamApiKey)
-                            .queryParam("steamid", steamId)
-                            .queryParam("include_appinfo", true)
-                            .queryParam("include_played_free_games", true)
-                            .build());
-
-            // First get the raw response to log it
-            String rawResponse = responseSpec
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("Raw Steam API response: {}", rawResponse);
-
-            // Parse the response directly using ObjectMapper
-            var response = objectMapper.readValue(rawResponse, SteamGamesResponseDTO.class);
-
-            if (response == null) {
-                log.error("Received null response from Steam API for Steam ID: {}", steamId);
-                throw new SteamAuthenticationException("Failed to fetch Steam games: No response from Steam API");
-            }
-
-            log.debug("Steam API response for Steam ID {}: {}", steamId, response);
-            return response;
-
-        } catch (WebClientResponseException e) {
-            log.error("Steam API error: {} - Response body: {}", e.getMessage(), e.getResponseBodyAsString(), e);
-            throw new SteamAuthenticationException("Failed to fetch Steam games: " + e.getMessage());
-        } catch (Exception e) {
-            log.error("Error fetching Steam games for Steam ID {}: {}", steamId, e.getMessage(), e);
-            throw new SteamAuthenticationException("Failed to fetch Steam games: " + e.getMessage());
-        }
-    }
-
     @Transactional(readOnly = true)
     public SteamGamesResponseDTO getSteamLibrary(User user) {
         if (user.getSteamUser() == null) {
@@ -340,26 +228,24 @@ public class SteamService {
         }
 
         try {
-            // Make the request to Steam API
-            String url = "/IPlayerService/GetOwnedGames/v1/";
-            var responseSpec = steamApiClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(url)
-                            .queryParam("key", steamApiKey)
-                            .queryParam("steamid", steamId)
-                            .queryParam("include_appinfo", true)
-                            .queryParam("include_played_free_games", true)
-                            .build());
-
-            // Get the raw response and parse it
-            String rawResponse = responseSpec
-                    .retrieve()
-                    .bodyToMono(String.class)
+            // Request thread: fail fast rather than park it waiting for the per-second budget
+            steamApiQuota.tryAcquire();
+            SteamGamesResponseDTO.Response response = new SteamGamesResponseDTO.Response();
+            List<SteamGamesResponseDTO.Game> games = streamOwnedGames(steamId, response::setGameCount)
+                    .collectList()
                     .block();
+            response.setGames(games);
+            if (response.getGameCount() == null) {
+                response.setGameCount(games != null ? games.size() : 0);
+            }
 
+            SteamGamesResponseDTO library = new SteamGamesResponseDTO();
+            library.setResponse(response);
             log.info("Successfully fetched Steam library data");
-            return objectMapper.readValue(rawResponse, SteamGamesResponseDTO.class);
+            return library;
 
+        } catch (SteamAuthenticationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching Steam library for user: {}", user.getUsername(), e);
             throw new SteamAuthenticationException("An error occurred while fetching Steam library: " + e.getMessage());
@@ -21,6 +21,7 @@ import com.bht.ludonova.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -129,6 +130,10 @@ public class UserService {
         }
     }
 
+    public Optional<User> findBySteamId(String steamId) {
+        return userRepository.findBySteamUser_SteamId(steamId);
+    }
+
     public User getOrCreateSteamUser(SteamUser steamUser) {
         return userRepository.findBySteamUser_SteamId(steamUser.getSteamId())
                 .orElseGet(() -> createSteamUser(steamUser));
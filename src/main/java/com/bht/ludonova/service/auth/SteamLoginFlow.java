@@ -0,0 +1,151 @@
+package com.bht.ludonova.service.auth;
+
+import com.bht.ludonova.exception.SteamAuthenticationException;
+import com.bht.ludonova.model.SteamUser;
+import com.bht.ludonova.model.User;
+import com.bht.ludonova.service.UserService;
+import com.bht.ludonova.service.steam.SteamPlayerSummaryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ConnectTimeoutException;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking Steam OpenID login. The OpenID {@code check_authentication} call runs in
+ * parallel with looking up the local user; first-time users get their player summary fetched
+ * and their account created only after Steam confirmed the assertion. The whole flow is
+ * bounded by {@code steam.login.timeout} and its latency is recorded as
+ * {@code ludonova.steam.login}.
+ */
+@Slf4j
+@Component
+public class SteamLoginFlow {
+    private static final String CLAIMED_ID_PREFIX = "https://steamcommunity.com/openid/id/";
+
+    private final WebClient openIdClient;
+    private final SteamPlayerSummaryService playerSummaryService;
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    private final String openIdUrl;
+    private final Duration loginTimeout;
+
+    public SteamLoginFlow(
+            ReactorClientHttpConnector steamLoginConnector,
+            SteamPlayerSummaryService playerSummaryService,
+            UserService userService,
+            MeterRegistry meterRegistry,
+            @Value("${steam.openid.url:https://steamcommunity.com/openid/login}") String openIdUrl,
+            @Value("${steam.login.timeout:PT8S}") Duration loginTimeout) {
+        this.openIdClient = WebClient.builder()
+                .clientConnector(steamLoginConnector)
+                .build();
+        this.playerSummaryService = playerSummaryService;
+        this.userService = userService;
+        this.meterRegistry = meterRegistry;
+        this.openIdUrl = openIdUrl;
+        this.loginTimeout = loginTimeout;
+    }
+
+    public Mono<User> authenticate(Map<String, String> openIdParams) {
+        String steamId = extractSteamId(openIdParams);
+        if (steamId == null) {
+            log.error("Could not extract Steam ID from params");
+            return Mono.error(new SteamAuthenticationException("Could not extract Steam ID"));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Only the read-only user lookup overlaps the verification; nothing is fetched from the
+        // Steam API or persisted for a steam id until Steam has confirmed the assertion
+        return Mono.zip(verifyAssertion(openIdParams), findUser(steamId))
+                .flatMap(verifiedAndUser -> {
+                    if (!verifiedAndUser.getT1()) {
+                        log.error("Steam validation failed for {}", steamId);
+                        return Mono.<User>error(new SteamAuthenticationException("Invalid Steam response"));
+                    }
+                    return verifiedAndUser.getT2().map(Mono::just).orElseGet(() -> createUser(steamId));
+                })
+                .timeout(loginTimeout)
+                .onErrorMap(SteamLoginFlow::isTimeout,
+                        e -> new SteamAuthenticationException("Steam did not respond in time", "STEAM_TIMEOUT"))
+                .onErrorMap(e -> !(e instanceof SteamAuthenticationException),
+                        e -> {
+                            log.error("Steam authentication failed", e);
+                            return new SteamAuthenticationException("Steam authentication failed");
+                        })
+                .doOnSuccess(user -> stopTimer(sample, "success"))
+                .doOnError(e -> stopTimer(sample, ((SteamAuthenticationException) e).getErrorCode()));
+    }
+
+    private Mono<Boolean> verifyAssertion(Map<String, String> openIdParams) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        openIdParams.forEach(form::add);
+        form.set("openid.mode", "check_authentication");
+
+        return openIdClient.post()
+                .uri(openIdUrl)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData(form))
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(body -> body.contains("is_valid:true"))
+                .defaultIfEmpty(false);
+    }
+
+    // Returning users log in with their stored profile, only new users need a player summary
+    private Mono<Optional<User>> findUser(String steamId) {
+        return Mono.fromCallable(() -> userService.findBySteamId(steamId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<User> createUser(String steamId) {
+        return playerSummaryService.lookup(steamId)
+                .switchIfEmpty(Mono.error(new SteamAuthenticationException("Failed to fetch Steam user details")))
+                .publishOn(Schedulers.boundedElastic())
+                .map(userService::getOrCreateSteamUser);
+    }
+
+    // Connect and read timeouts of the connector arrive wrapped in a WebClientRequestException
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void stopTimer(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("ludonova.steam.login")
+                .description("Latency of the Steam OpenID login flow")
+                .tag("outcome", Optional.ofNullable(outcome).orElse("error"))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    static String extractSteamId(Map<String, String> params) {
+        String identity = params.get("openid.claimed_id");
+        if (identity != null && identity.matches("https://steamcommunity.com/openid/id/\\d+")) {
+            return identity.substring(CLAIMED_ID_PREFIX.length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
+import com.bht.ludonova.model.Game;
+import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.CatalogImportCheckpointRepository;
+import com.bht.ludonova.repository.CatalogImportCheckpointRepository.Checkpoint;
+import com.bht.ludonova.repository.GameRepository;
+import com.bht.ludonova.service.RawgGameImporter;
+import com.bht.ludonova.service.RawgService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the catalog with well-rated games from RAWG, tier by tier of metacritic score. The
+ * import runs in the background after startup, several tiers at a time, and checkpoints every
+ * page so a restart resumes where the last run stopped instead of starting over. Pacing and
+ * retries of the RAWG calls are left to {@link com.bht.ludonova.service.RawgRateLimiter}.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+    private final RawgService rawgService;
+    private final RawgGameImporter gameImporter;
+    private final GameRepository gameRepository;
+    private final CatalogImportCheckpointRepository checkpointRepository;
+    private final boolean enabled;
+    private final List<String> tiers;
+    private final int pagesPerTier;
+    private final int pageSize;
+    private final int targetGames;
+    private final int parallelism;
+
+    private final AtomicInteger importedTotal = new AtomicInteger();
+    private volatile Disposable run;
+
+    public CatalogImportService(
+            RawgService rawgService,
+            RawgGameImporter gameImporter,
+            GameRepository gameRepository,
+            CatalogImportCheckpointRepository checkpointRepository,
+            @Value("${catalog.import.enabled:true}") boolean enabled,
+            @Value("${catalog.import.tiers:90-100,85-89,80-84,75-79,70-74}") List<String> tiers,
+            @Value("${catalog.import.pages-per-tier:5}") int pagesPerTier,
+            @Value("${catalog.import.page-size:40}") int pageSize,
+            @Value("${catalog.import.target-games:500}") int targetGames,
+            @Value("${catalog.import.parallelism:2}") int parallelism) {
+        this.rawgService = rawgService;
+        this.gameImporter = gameImporter;
+        this.gameRepository = gameRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.enabled = enabled;
+        this.tiers = tiers;
+        this.pagesPerTier = pagesPerTier;
+        this.pageSize = pageSize;
+        this.targetGames = targetGames;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Starts the import without waiting for it, so application readiness never depends on RAWG.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startImport() {
+        if (!enabled) {
+            log.info("Catalog import is disabled");
+            return;
+        }
+        run = Mono.fromCallable(checkpointRepository::findAll)
+                .flatMapMany(checkpoints -> {
+                    importedTotal.set(checkpoints.values().stream().mapToInt(Checkpoint::getImportedCount).sum());
+                    return Flux.fromIterable(tiers)
+                            .filter(tier -> !checkpoints.containsKey(tier) || !checkpoints.get(tier).isCompleted())
+                            .flatMap(tier -> Mono.fromRunnable(() -> importTier(checkpoints.getOrDefault(tier, Checkpoint.start(tier))))
+                                    .subscribeOn(Schedulers.boundedElastic()), parallelism);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null,
+                        e -> log.error("Catalog import stopped: {}", e.getMessage(), e),
+                        () -> log.info("Catalog import finished, {} games imported so far", importedTotal.get()));
+    }
+
+    @PreDestroy
+    void stopImport() {
+        if (run != null) {
+            run.dispose();
+        }
+    }
+
+    private void importTier(Checkpoint checkpoint) {
+        String tier = checkpoint.getTier();
+        String metacritic = tier.replace('-', ',');
+        log.info("Importing metacritic tier {} from page {}", tier, checkpoint.getNextPage());
+
+        while (!checkpoint.isCompleted() && importedTotal.get() < targetGames) {
+            int page = checkpoint.getNextPage();
+            RawgSearchResponseDTO response = fetchPage(tier, metacritic, page);
+            if (response == null) {
+                // Given up for this run, the checkpoint keeps the page for the next start
+                return;
+            }
+
+            List<RawgGameDTO> results = response.getResults() == null ? List.of() : response.getResults();
+            List<Game> imported;
+            try {
+                imported = gameImporter.importGames(newGames(results, checkpoint.getLastApiId()));
+            } catch (RuntimeException e) {
+                // Only this tier stops; the checkpoint keeps the page for the next start
+                log.error("Giving up on metacritic {} page {} for this run, storing it failed: {}",
+                        tier, page, e.getMessage(), e);
+                return;
+            }
+            importedTotal.addAndGet(imported.size());
+
+            boolean lastPage = results.isEmpty() || response.getNext() == null || page >= pagesPerTier;
+            String lastApiId = results.isEmpty() ? checkpoint.getLastApiId() : results.get(results.size() - 1).getId().toString();
+            checkpoint = new Checkpoint(tier, page + 1, lastApiId, checkpoint.getImportedCount() + imported.size(), lastPage);
+            checkpointRepository.save(checkpoint);
+            log.info("Imported {} games from metacritic {} page {}, {} in total", imported.size(), tier, page, importedTotal.get());
+        }
+    }
+
+    private RawgSearchResponseDTO fetchPage(String tier, String metacritic, int page) {
+        try {
+            return rawgService.listGames(page, "-metacritic", null, pageSize, null, metacritic);
+        } catch (RuntimeException e) {
+            log.warn("Giving up on metacritic {} page {} for this run: {}", tier, page, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Drops nameless entries, entries up to the cursor (the listing shifted since the previous
+     * page was read) and games that are already stored.
+     */
+    private List<RawgGameDTO> newGames(List<RawgGameDTO> results, String cursor) {
+        int start = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getId().toString().equals(cursor)) {
+                start = i + 1;
+            }
+        }
+        List<RawgGameDTO> candidates = results.subList(start, results.size()).stream()
+                .filter(game -> game.getName() != null && !game.getName().trim().isEmpty())
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> stored = gameRepository.findByApiIdInAndSource(
+                        candidates.stream().map(game -> game.getId().toString()).collect(Collectors.toSet()), GameSource.RAWG)
+                .stream()
+                .map(Game::getApiId)
+                .collect(Collectors.toSet());
+        return candidates.stream()
+                .filter(game -> !stored.contains(game.getId().toString()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,166 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.mapper.RawgGameMapper;
+import com.bht.ludonova.model.Game;
+import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.GameRepository;
+import com.bht.ludonova.service.RawgService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps RAWG-sourced games fresh. Every tick refreshes the games that are stalest, weighted by
+ * how many users have them in their library, and sizes the batch so the whole RAWG catalog
+ * is cycled once per {@code rawg.refresh.sla}. The RAWG calls themselves are paced by the
+ * shared client rate limiter, and updates only write columns whose value changed.
+ */
+@Slf4j
+@Component
+public class CatalogRefreshScheduler {
+    private final GameRepository gameRepository;
+    private final RawgService rawgService;
+    private final RawgGameMapper rawgGameMapper;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration sla;
+    private final Duration tick;
+    private final int maxBatchSize;
+    private final int concurrency;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter refreshedCounter;
+    private final Counter goneCounter;
+    private final Counter failedCounter;
+
+    public CatalogRefreshScheduler(
+            GameRepository gameRepository,
+            RawgService rawgService,
+            RawgGameMapper rawgGameMapper,
+            CacheManager cacheManager,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${rawg.refresh.enabled:true}") boolean enabled,
+            @Value("${rawg.refresh.sla:P7D}") Duration sla,
+            @Value("${rawg.refresh.tick:PT5M}") Duration tick,
+            @Value("${rawg.refresh.max-batch-size:200}") int maxBatchSize,
+            @Value("${rawg.refresh.concurrency:4}") int concurrency) {
+        this.gameRepository = gameRepository;
+        this.rawgService = rawgService;
+        this.rawgGameMapper = rawgGameMapper;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.sla = sla;
+        this.tick = tick;
+        this.maxBatchSize = maxBatchSize;
+        this.concurrency = concurrency;
+
+        Gauge.builder("ludonova.catalog.refresh.backlog", backlog, AtomicLong::get)
+                .description("RAWG games not refreshed within the refresh SLA")
+                .register(meterRegistry);
+        this.refreshedCounter = refreshCounter(meterRegistry, "refreshed");
+        this.goneCounter = refreshCounter(meterRegistry, "gone");
+        this.failedCounter = refreshCounter(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${rawg.refresh.tick:PT5M}", initialDelayString = "${rawg.refresh.initial-delay:PT5M}")
+    public void refreshStaleGames() {
+        if (!enabled) {
+            return;
+        }
+        long staleSeconds = sla.toSeconds();
+        backlog.set(gameRepository.countStaleRawgGames(staleSeconds));
+        if (backlog.get() == 0) {
+            return;
+        }
+
+        // An even share of the catalog per tick, so each game comes around once per SLA
+        long catalogSize = gameRepository.countBySource(GameSource.RAWG);
+        int batchSize = (int) Math.min(maxBatchSize,
+                Math.max(1, (long) Math.ceil((double) catalogSize * tick.toMillis() / sla.toMillis())));
+        List<Long> ids = gameRepository.findStaleRawgGameIds(staleSeconds, batchSize);
+        refresh(ids);
+    }
+
+    private void refresh(List<Long> ids) {
+        List<Game> games = gameRepository.findAllById(ids);
+        Map<Long, Optional<RawgGameDTO>> details = new ConcurrentHashMap<>();
+        Set<Long> failed = ConcurrentHashMap.newKeySet();
+        Flux.fromIterable(games)
+                .flatMap(game -> rawgService.getGameDetailsAsync(Long.valueOf(game.getApiId()))
+                        .map(Optional::of)
+                        .doOnNext(found -> details.put(game.getId(), found))
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                            // Removed from RAWG, keep the last known data and stop asking
+                            details.put(game.getId(), Optional.empty());
+                            return Mono.empty();
+                        })
+                        .onErrorResume(e -> {
+                            failedCounter.increment();
+                            failed.add(game.getId());
+                            log.debug("Refreshing game {} from RAWG failed: {}", game.getId(), e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .then()
+                .block();
+        if (details.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+
+        Set<Long> handled = new HashSet<>(details.keySet());
+        handled.addAll(failed);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Game game : gameRepository.findAllById(handled)) {
+                Optional<RawgGameDTO> found = details.getOrDefault(game.getId(), Optional.empty());
+                if (found.isPresent()) {
+                    rawgGameMapper.applyTo(game, found.get());
+                    refreshedCounter.increment();
+                } else {
+                    // Gone from RAWG, or failing: either way it goes to the back of the queue
+                    // instead of heading every batch
+                    game.setRawgLastUpdated(LocalDateTime.now());
+                    if (!failed.contains(game.getId())) {
+                        goneCounter.increment();
+                    }
+                }
+            }
+        });
+
+        Cache cache = cacheManager.getCache("games");
+        if (cache != null) {
+            details.keySet().forEach(cache::evict);
+        }
+        log.debug("Refreshed {} of {} stale RAWG games", details.size(), ids.size());
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ludonova.catalog.refresh")
+                .description("RAWG games handled by the catalog refresh by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
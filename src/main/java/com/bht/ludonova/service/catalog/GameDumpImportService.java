@@ -0,0 +1,179 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.game.GameDumpImportStatusDTO;
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.repository.GameDumpImportRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports games from a RAWG dump on local disk: newline-delimited (or array) JSON of
+ * {@link RawgGameDTO} records, optionally gzip-compressed. The file is parsed as a stream and
+ * written in chunks of {@code catalog.dump.chunk-size} through {@link GameDumpImportRepository},
+ * so memory use is bounded by one chunk whatever the size of the dump. Only files inside
+ * {@code catalog.dump.directory} can be imported, and one import runs at a time.
+ */
+@Slf4j
+@Service
+public class GameDumpImportService {
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final GameDumpImportRepository importRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader gameReader;
+    private final Path directory;
+    private final int chunkSize;
+
+    private final AtomicReference<ImportJob> currentJob = new AtomicReference<>();
+
+    public GameDumpImportService(
+            GameDumpImportRepository importRepository,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${catalog.dump.directory:./dumps}") String directory,
+            @Value("${catalog.dump.chunk-size:5000}") int chunkSize) {
+        this.importRepository = importRepository;
+        this.eventPublisher = eventPublisher;
+        // Dumps carry many more fields than we map
+        this.gameReader = objectMapper.readerFor(RawgGameDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts importing the given dump file in the background.
+     *
+     * @param fileName path of the dump relative to {@code catalog.dump.directory}
+     * @throws IllegalArgumentException if the file is outside the dump directory or missing
+     * @throws IllegalStateException if another import is still running
+     */
+    public GameDumpImportStatusDTO startImport(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Dump file not found in the dump directory: " + fileName);
+        }
+
+        ImportJob job = new ImportJob(directory.relativize(file).toString());
+        ImportJob running = currentJob.get();
+        if ((running != null && running.finishedAt == null) || !currentJob.compareAndSet(running, job)) {
+            throw new IllegalStateException("A dump import is already running");
+        }
+
+        Mono.fromRunnable(() -> runImport(job, file))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+        return job.toStatus();
+    }
+
+    public Optional<GameDumpImportStatusDTO> getStatus() {
+        return Optional.ofNullable(currentJob.get()).map(ImportJob::toStatus);
+    }
+
+    private void runImport(ImportJob job, Path file) {
+        log.info("Importing games from dump {}", file);
+        try (InputStream input = open(file);
+             MappingIterator<RawgGameDTO> records = gameReader.readValues(input)) {
+            List<RawgGameDTO> chunk = new ArrayList<>(chunkSize);
+            while (records.hasNextValue()) {
+                RawgGameDTO game = records.nextValue();
+                job.recordsRead.incrementAndGet();
+                if (game.getId() == null || game.getName() == null || game.getName().isBlank()) {
+                    job.invalidRecords.incrementAndGet();
+                    continue;
+                }
+                chunk.add(game);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(job, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            importChunk(job, chunk);
+            job.finish("COMPLETED", null);
+            log.info("Imported {} games from dump {} ({} records read, {} already stored, {} invalid)",
+                    job.gamesImported.get(), file, job.recordsRead.get(), job.recordsSkipped.get(), job.invalidRecords.get());
+        } catch (Exception e) {
+            job.finish("FAILED", e.getMessage());
+            log.error("Dump import from {} failed after {} records: {}", file, job.recordsRead.get(), e.getMessage(), e);
+        }
+    }
+
+    private void importChunk(ImportJob job, List<RawgGameDTO> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> inserted = importRepository.importChunk(chunk);
+        job.gamesImported.addAndGet(inserted.size());
+        job.recordsSkipped.addAndGet(chunk.size() - inserted.size());
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(GamesChangedEvent.upserted(inserted));
+        }
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        input.mark(2);
+        int magic = input.read() | (input.read() << 8);
+        input.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(input, 1 << 16) : input;
+    }
+
+    private static final class ImportJob {
+        private final String file;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong recordsRead = new AtomicLong();
+        private final AtomicLong gamesImported = new AtomicLong();
+        private final AtomicLong recordsSkipped = new AtomicLong();
+        private final AtomicLong invalidRecords = new AtomicLong();
+        private volatile String state = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private ImportJob(String file) {
+            this.file = file;
+        }
+
+        private void finish(String state, String error) {
+            this.error = error;
+            this.state = state;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        private GameDumpImportStatusDTO toStatus() {
+            return GameDumpImportStatusDTO.builder()
+                    .file(file)
+                    .state(state)
+                    .recordsRead(recordsRead.get())
+                    .gamesImported(gamesImported.get())
+                    .recordsSkipped(recordsSkipped.get())
+                    .invalidRecords(invalidRecords.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
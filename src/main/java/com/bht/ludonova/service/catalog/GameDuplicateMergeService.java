@@ -0,0 +1,75 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.game.GameMergeReportDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.repository.GameResolutionRepository;
+import com.bht.ludonova.service.catalog.GameEntityResolver.DuplicatePair;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Folds Steam rows that duplicate a RAWG (or manual) game into the canonical row. Each
+ * pair is merged in its own transaction, so one failing pair does not undo the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameDuplicateMergeService {
+    private final GameEntityResolver entityResolver;
+    private final GameResolutionRepository resolutionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+
+    public List<DuplicatePair> findDuplicates(int limit) {
+        return entityResolver.findDuplicates(limit);
+    }
+
+    public GameMergeReportDTO mergeDuplicates(int limit) {
+        long start = System.currentTimeMillis();
+        List<DuplicatePair> duplicates = entityResolver.findDuplicates(limit);
+        int merged = 0;
+        int failed = 0;
+
+        for (DuplicatePair pair : duplicates) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    resolutionRepository.mergeInto(pair.getDuplicateId(), pair.getCanonicalId());
+                    eventPublisher.publishEvent(new GamesChangedEvent(
+                            Set.of(pair.getCanonicalId()), Set.of(pair.getDuplicateId())));
+                });
+                evictFromCache(pair);
+                merged++;
+            } catch (DataAccessException e) {
+                log.error("Failed to merge game {} into {} ({}): {}",
+                        pair.getDuplicateId(), pair.getCanonicalId(), pair.getTitle(), e.getMessage());
+                failed++;
+            }
+        }
+
+        log.info("Merged {} duplicate games, {} failed", merged, failed);
+        return GameMergeReportDTO.builder()
+                .candidates(duplicates.size())
+                .merged(merged)
+                .failed(failed)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private void evictFromCache(DuplicatePair pair) {
+        Cache games = cacheManager.getCache("games");
+        if (games != null) {
+            games.evict(pair.getDuplicateId());
+            games.evict(pair.getCanonicalId());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.GameResolutionRepository;
+import com.bht.ludonova.repository.GameResolutionRepository.GameTitle;
+import com.bht.ludonova.util.TitleNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of every catalog game by normalized title, used to recognise the same
+ * game arriving from different sources. A match requires exactly one candidate from
+ * another source whose release year, when both sides know it, is the same; anything
+ * ambiguous is left unresolved rather than guessed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEntityResolver {
+    private final GameResolutionRepository resolutionRepository;
+
+    private final Map<String, List<GameTitle>> gamesByTitle = new ConcurrentHashMap<>();
+    private final Map<Long, String> titleKeyById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        long start = System.currentTimeMillis();
+        gamesByTitle.clear();
+        titleKeyById.clear();
+        resolutionRepository.streamTitles(this::index);
+        ready = true;
+        log.info("Indexed {} games under {} normalized titles in {}ms",
+                titleKeyById.size(), gamesByTitle.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onGamesChanged(GamesChangedEvent event) {
+        event.getRemovedIds().forEach(this::unindex);
+        if (!event.getUpsertedIds().isEmpty()) {
+            event.getUpsertedIds().forEach(this::unindex);
+            resolutionRepository.findTitles(event.getUpsertedIds()).forEach(this::index);
+        }
+    }
+
+    /**
+     * Finds the existing game from another source that the given title refers to.
+     *
+     * @param releaseYear the incoming game's release year, or {@code null} if unknown
+     */
+    public Optional<Long> resolve(String title, Integer releaseYear, GameSource incomingSource) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<GameTitle> candidates = gamesByTitle.getOrDefault(TitleNormalizer.normalize(title), List.of()).stream()
+                .filter(candidate -> candidate.getSource() != incomingSource)
+                .filter(candidate -> yearsCompatible(candidate.getReleaseYear(), releaseYear))
+                .collect(Collectors.toList());
+        return candidates.size() == 1 ? Optional.of(candidates.get(0).getGameId()) : Optional.empty();
+    }
+
+    /**
+     * Lists Steam rows that unambiguously duplicate a game from another source.
+     */
+    public List<DuplicatePair> findDuplicates(int limit) {
+        List<DuplicatePair> duplicates = new ArrayList<>();
+        for (List<GameTitle> games : gamesByTitle.values()) {
+            if (games.size() < 2) {
+                continue;
+            }
+            for (GameTitle steamGame : games) {
+                if (steamGame.getSource() != GameSource.STEAM) {
+                    continue;
+                }
+                List<GameTitle> canonical = games.stream()
+                        .filter(candidate -> candidate.getSource() != GameSource.STEAM)
+                        .filter(candidate -> yearsCompatible(candidate.getReleaseYear(), steamGame.getReleaseYear()))
+                        .collect(Collectors.toList());
+                if (canonical.size() == 1) {
+                    duplicates.add(new DuplicatePair(steamGame.getGameId(), canonical.get(0).getGameId(), steamGame.getTitle()));
+                    if (duplicates.size() >= limit) {
+                        return duplicates;
+                    }
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void index(GameTitle game) {
+        String key = TitleNormalizer.normalize(game.getTitle());
+        if (key.isEmpty()) {
+            return;
+        }
+        gamesByTitle.compute(key, (k, games) -> {
+            List<GameTitle> updated = games == null ? new ArrayList<>() : new ArrayList<>(games);
+            updated.add(game);
+            return List.copyOf(updated);
+        });
+        titleKeyById.put(game.getGameId(), key);
+    }
+
+    private void unindex(Long gameId) {
+        String key = titleKeyById.remove(gameId);
+        if (key == null) {
+            return;
+        }
+        gamesByTitle.computeIfPresent(key, (k, games) -> {
+            List<GameTitle> remaining = games.stream()
+                    .filter(game -> game.getGameId() != gameId)
+                    .collect(Collectors.toList());
+            return remaining.isEmpty() ? null : List.copyOf(remaining);
+        });
+    }
+
+    private static boolean yearsCompatible(Integer a, Integer b) {
+        return a == null || b == null || Objects.equals(a, b);
+    }
+
+    @Value
+    public static class DuplicatePair {
+        long duplicateId;
+        long canonicalId;
+        String title;
+    }
+}
@@ -0,0 +1,471 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.game.GameSuggestionDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.repository.GameSuggestRepository;
+import com.bht.ludonova.repository.GameSuggestRepository.SuggestRow;
+import com.bht.ludonova.util.TitleNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory autocomplete over normalized titles. Every word start of a title is a suffix
+ * entry in one sorted array, so a prefix is a contiguous range found by binary search;
+ * the best games of each prefix up to {@value #PRECOMPUTED_PREFIX_LENGTH} characters, the
+ * ranges too large to scan per keystroke, are ranked once at build time. Games rank by
+ * rating plus the log of how many users collected them, and matches at the start of the
+ * title come before matches at a later word.
+ * <p>
+ * The sorted snapshot is immutable. Games saved or deleted afterwards hide their snapshot
+ * entry and live in a small overlay that is scanned per lookup, until the snapshot is
+ * rebuilt every {@code search.suggest.rebuild-interval} or once the overlay exceeds
+ * {@code search.suggest.max-overlay}.
+ */
+@Slf4j
+@Component
+public class GameSuggestIndex {
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 3;
+    // Entries pack the game index above the 16-bit offset of the word in its key
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final float TITLE_START_BOOST = 1000f;
+
+    private final GameSuggestRepository suggestRepository;
+    private final int maxLimit;
+    private final int maxOverlay;
+    private final Duration rebuildInterval;
+    private final Timer lookupTimer;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), 1);
+    private volatile Instant builtAt = Instant.EPOCH;
+    private volatile boolean ready;
+    private volatile boolean loadFailed;
+    private final AtomicLong sequence = new AtomicLong();
+    // Games saved or deleted since the snapshot was read, by the sequence of their last change
+    private final Map<Long, Long> changedIds = new ConcurrentHashMap<>();
+    // Current state of the saved ones among them
+    private final Map<Long, Suggestion> overlay = new ConcurrentHashMap<>();
+
+    public GameSuggestIndex(
+            GameSuggestRepository suggestRepository,
+            MeterRegistry meterRegistry,
+            @Value("${search.suggest.max-limit:20}") int maxLimit,
+            @Value("${search.suggest.max-overlay:5000}") int maxOverlay,
+            @Value("${search.suggest.rebuild-interval:PT6H}") Duration rebuildInterval) {
+        this.suggestRepository = suggestRepository;
+        this.maxLimit = maxLimit;
+        this.maxOverlay = maxOverlay;
+        this.rebuildInterval = rebuildInterval;
+        this.lookupTimer = Timer.builder("ludonova.search.suggest")
+                .description("Autocomplete lookups served from the in-memory index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("ludonova.search.suggest.entries", this, index -> index.snapshot.size())
+                .description("Word-start entries in the autocomplete snapshot")
+                .register(meterRegistry);
+        Gauge.builder("ludonova.search.suggest.overlay", overlay, Map::size)
+                .description("Games changed since the autocomplete snapshot was built")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the first snapshot in the background, so readiness doesn't wait for a scan of the
+     * whole catalog; lookups answer empty until it is done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        Mono.fromRunnable(this::rebuild)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> {
+                    // Retried by the next staleness check
+                    loadFailed = true;
+                    log.error("Building the autocomplete index failed: {}", e.getMessage(), e);
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.check-interval:PT1M}",
+            initialDelayString = "${search.suggest.check-interval:PT1M}")
+    public void rebuildIfStale() {
+        if (loadFailed || (ready && (changedIds.size() > maxOverlay
+                || Duration.between(builtAt, Instant.now()).compareTo(rebuildInterval) > 0))) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // Changes after this point may be missing from the snapshot read below, so they stay in the overlay
+        long startSequence = sequence.get();
+        List<SuggestRow> rows = new ArrayList<>();
+        suggestRepository.streamAll(rows::add);
+        snapshot = Snapshot.build(rows, maxLimit);
+        changedIds.entrySet().removeIf(change -> change.getValue() <= startSequence);
+        overlay.values().removeIf(suggestion -> suggestion.getSequence() <= startSequence);
+        builtAt = Instant.now();
+        ready = true;
+        loadFailed = false;
+        log.info("Built autocomplete index of {} games with {} entries in {}ms",
+                rows.size(), snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGamesChanged(GamesChangedEvent event) {
+        long changeSequence = sequence.incrementAndGet();
+        event.getRemovedIds().forEach(gameId -> {
+            changedIds.put(gameId, changeSequence);
+            overlay.remove(gameId);
+        });
+        if (!event.getUpsertedIds().isEmpty()) {
+            event.getUpsertedIds().forEach(gameId -> {
+                changedIds.put(gameId, changeSequence);
+                overlay.remove(gameId);
+            });
+            suggestRepository.findByIds(event.getUpsertedIds()).forEach(row -> {
+                String key = TitleNormalizer.normalize(row.getTitle());
+                if (!key.isEmpty()) {
+                    overlay.put(row.getGameId(), new Suggestion(row.getGameId(), row.getTitle(), key,
+                            score(row), changeSequence));
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the best games having a title word that starts with the normalized query,
+     * or nothing while the index is still being built.
+     */
+    public List<GameSuggestionDTO> suggest(String query, int limit) {
+        String prefix = TitleNormalizer.normalize(query);
+        if (!ready || prefix.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        Ranking<String> ranking = new Ranking<>(Math.max(1, Math.min(limit, maxLimit)));
+        snapshot.collect(prefix, changedIds.keySet(), ranking);
+        for (Suggestion suggestion : overlay.values()) {
+            int offset = matchOffset(suggestion.getKey(), prefix);
+            if (offset >= 0) {
+                ranking.offer(suggestion.getGameId(), boosted(suggestion.getScore(), offset), suggestion.getTitle());
+            }
+        }
+        List<GameSuggestionDTO> suggestions = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            suggestions.add(new GameSuggestionDTO(ranking.keyAt(i), ranking.valueAt(i)));
+        }
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static float score(SuggestRow row) {
+        double rating = row.getRating() != null ? row.getRating() : 0;
+        return (float) (rating + Math.log1p(row.getInstanceCount()));
+    }
+
+    private static float boosted(float score, int offset) {
+        return offset == 0 ? score + TITLE_START_BOOST : score;
+    }
+
+    // Offset of the first word of key starting with prefix, or -1
+    private static int matchOffset(String key, String prefix) {
+        for (int offset = 0; offset >= 0; offset = nextWord(key, offset)) {
+            if (key.startsWith(prefix, offset)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextWord(String key, int offset) {
+        int space = key.indexOf(' ', offset);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    /**
+     * Immutable sorted suffix entries with the per-game data they point to.
+     */
+    private static final class Snapshot {
+        private final long[] gameIds;
+        private final String[] titles;
+        private final String[] keys;
+        private final float[] scores;
+        private final long[] entries;
+        // Best entries of every short prefix, best first
+        private final Map<String, int[]> topByPrefix;
+
+        private Snapshot(long[] gameIds, String[] titles, String[] keys, float[] scores, long[] entries,
+                         Map<String, int[]> topByPrefix) {
+            this.gameIds = gameIds;
+            this.titles = titles;
+            this.keys = keys;
+            this.scores = scores;
+            this.entries = entries;
+            this.topByPrefix = topByPrefix;
+        }
+
+        static Snapshot build(List<SuggestRow> rows, int maxLimit) {
+            int count = rows.size();
+            long[] gameIds = new long[count];
+            String[] titles = new String[count];
+            String[] keys = new String[count];
+            float[] scores = new float[count];
+            int entryCount = 0;
+            for (int game = 0; game < count; game++) {
+                SuggestRow row = rows.get(game);
+                gameIds[game] = row.getGameId();
+                titles[game] = row.getTitle();
+                keys[game] = TitleNormalizer.normalize(row.getTitle());
+                scores[game] = score(row);
+                for (int offset = 0; offset >= 0 && offset <= MAX_OFFSET && offset < keys[game].length();
+                     offset = nextWord(keys[game], offset)) {
+                    entryCount++;
+                }
+            }
+
+            long[] entries = new long[entryCount];
+            int entry = 0;
+            for (int game = 0; game < count; game++) {
+                for (int offset = 0; offset >= 0 && offset <= MAX_OFFSET && offset < keys[game].length();
+                     offset = nextWord(keys[game], offset)) {
+                    entries[entry++] = ((long) game << 16) | offset;
+                }
+            }
+            sort(entries, keys);
+
+            Snapshot snapshot = new Snapshot(gameIds, titles, keys, scores, entries, new HashMap<>());
+            snapshot.rankShortPrefixes(maxLimit);
+            return snapshot;
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        void collect(String prefix, Set<Long> excluded, Ranking<String> ranking) {
+            if (prefix.length() <= PRECOMPUTED_PREFIX_LENGTH) {
+                for (int entry : topByPrefix.getOrDefault(prefix, new int[0])) {
+                    offer(entry, excluded, ranking);
+                }
+                return;
+            }
+            for (int entry = lowerBound(prefix); entry < entries.length; entry++) {
+                if (!keys[game(entry)].startsWith(prefix, offset(entry))) {
+                    break;
+                }
+                offer(entry, excluded, ranking);
+            }
+        }
+
+        private void offer(int entry, Set<Long> excluded, Ranking<String> ranking) {
+            int game = game(entry);
+            if (!excluded.contains(gameIds[game])) {
+                ranking.offer(gameIds[game], boosted(scores[game], offset(entry)), titles[game]);
+            }
+        }
+
+        // Ranks the contiguous entry range of every prefix up to PRECOMPUTED_PREFIX_LENGTH in one pass.
+        // Twice the largest page is kept so entries hidden by later changes rarely leave a short list.
+        private void rankShortPrefixes(int maxLimit) {
+            String[] prefixes = new String[PRECOMPUTED_PREFIX_LENGTH + 1];
+            @SuppressWarnings("unchecked")
+            Ranking<Integer>[] rankings = (Ranking<Integer>[]) new Ranking<?>[PRECOMPUTED_PREFIX_LENGTH + 1];
+            for (int entry = 0; entry < entries.length; entry++) {
+                String key = keys[game(entry)];
+                int offset = offset(entry);
+                for (int length = 1; length <= PRECOMPUTED_PREFIX_LENGTH; length++) {
+                    if (key.length() - offset < length) {
+                        storeRanking(prefixes[length], rankings[length]);
+                        prefixes[length] = null;
+                        continue;
+                    }
+                    if (prefixes[length] == null || !key.regionMatches(offset, prefixes[length], 0, length)) {
+                        storeRanking(prefixes[length], rankings[length]);
+                        prefixes[length] = key.substring(offset, offset + length);
+                        rankings[length] = new Ranking<>(maxLimit * 2);
+                    }
+                    int game = game(entry);
+                    rankings[length].offer(game, boosted(scores[game], offset), entry);
+                }
+            }
+            for (int length = 1; length <= PRECOMPUTED_PREFIX_LENGTH; length++) {
+                storeRanking(prefixes[length], rankings[length]);
+            }
+        }
+
+        private void storeRanking(String prefix, Ranking<Integer> ranking) {
+            if (prefix == null) {
+                return;
+            }
+            int[] best = new int[ranking.size()];
+            for (int i = 0; i < best.length; i++) {
+                best[i] = ranking.valueAt(i);
+            }
+            topByPrefix.put(prefix, best);
+        }
+
+        // First entry whose suffix is not smaller than the prefix
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(keys[game(mid)], offset(mid), prefix, 0) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int game(int entry) {
+            return (int) (entries[entry] >>> 16);
+        }
+
+        private int offset(int entry) {
+            return (int) (entries[entry] & MAX_OFFSET);
+        }
+
+        // Bottom-up merge sort by suffix, avoiding a boxed copy of millions of entries
+        private static void sort(long[] entries, String[] keys) {
+            long[] source = entries;
+            long[] target = new long[entries.length];
+            for (int width = 1; width < entries.length; width *= 2) {
+                for (int low = 0; low < entries.length; low += 2 * width) {
+                    int mid = Math.min(low + width, entries.length);
+                    int high = Math.min(low + 2 * width, entries.length);
+                    int left = low;
+                    int right = mid;
+                    int out = low;
+                    while (left < mid && right < high) {
+                        target[out++] = compareEntries(source[left], source[right], keys) <= 0
+                                ? source[left++] : source[right++];
+                    }
+                    while (left < mid) {
+                        target[out++] = source[left++];
+                    }
+                    while (right < high) {
+                        target[out++] = source[right++];
+                    }
+                }
+                long[] swap = source;
+                source = target;
+                target = swap;
+            }
+            if (source != entries) {
+                System.arraycopy(source, 0, entries, 0, entries.length);
+            }
+        }
+
+        private static int compareEntries(long a, long b, String[] keys) {
+            return compare(keys[(int) (a >>> 16)], (int) (a & MAX_OFFSET), keys[(int) (b >>> 16)], (int) (b & MAX_OFFSET));
+        }
+
+        private static int compare(String a, int aOffset, String b, int bOffset) {
+            int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+            for (int i = 0; i < length; i++) {
+                int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (a.length() - aOffset) - (b.length() - bOffset);
+        }
+    }
+
+    /**
+     * The best {@code capacity} values by score, at most one per key, kept sorted best first.
+     * Capacities are page sizes, so linear inserts beat a heap.
+     */
+    private static final class Ranking<T> {
+        private final long[] keys;
+        private final float[] scores;
+        private final Object[] values;
+        private int size;
+
+        Ranking(int capacity) {
+            this.keys = new long[capacity];
+            this.scores = new float[capacity];
+            this.values = new Object[capacity];
+        }
+
+        void offer(long key, float score, T value) {
+            if (size == keys.length && score <= scores[size - 1]) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    if (score <= scores[i]) {
+                        return;
+                    }
+                    remove(i);
+                    break;
+                }
+            }
+            int position = Math.min(size, keys.length - 1);
+            while (position > 0 && scores[position - 1] < score) {
+                keys[position] = keys[position - 1];
+                scores[position] = scores[position - 1];
+                values[position] = values[position - 1];
+                position--;
+            }
+            keys[position] = key;
+            scores[position] = score;
+            values[position] = value;
+            size = Math.min(size + 1, keys.length);
+        }
+
+        private void remove(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(scores, index + 1, scores, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long keyAt(int index) {
+            return keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        T valueAt(int index) {
+            return (T) values[index];
+        }
+    }
+
+    @lombok.Value
+    private static class Suggestion {
+        long gameId;
+        String title;
+        String key;
+        float score;
+        long sequence;
+    }
+}
@@ -0,0 +1,237 @@
+package com.bht.ludonova.service.catalog;
+
+import com.bht.ludonova.dto.game.GenreFacetsDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.repository.GameGenreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory genre facets: one compressed bitmap of game ids per genre, so genre filters are
+ * bitmap ANDs and ORs and facet counts are intersection cardinalities instead of joins and
+ * GROUP BYs over {@code game_genres}. Genres are matched case-insensitively.
+ * <p>
+ * Bitmaps are never modified once published; a change replaces the bitmaps it touches with
+ * updated copies, so lookups need no locking. Game ids are stored as unsigned 32-bit values.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenreFacetIndex {
+    private static final long MAX_GAME_ID = 0xFFFFFFFFL;
+    private static final Duration LOAD_RETRY_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration LOAD_RETRY_MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final GameGenreRepository genreRepository;
+
+    // By lower-cased genre name
+    private final Map<String, Facet> facets = new ConcurrentHashMap<>();
+    private volatile RoaringBitmap allGames = new RoaringBitmap();
+    private volatile boolean ready;
+
+    /**
+     * Loads the index in the background, so readiness doesn't wait for a scan of every genre
+     * row; {@link #isReady()} stays false until it is done and a failed load is retried.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        Mono.fromRunnable(this::load)
+                .subscribeOn(Schedulers.boundedElastic())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, LOAD_RETRY_BACKOFF).maxBackoff(LOAD_RETRY_MAX_BACKOFF)
+                        .doBeforeRetry(retry -> log.error("Loading the genre facet index failed, retrying: {}",
+                                retry.failure().getMessage())))
+                .subscribe();
+    }
+
+    private synchronized void load() {
+        long start = System.currentTimeMillis();
+        RoaringBitmap games = new RoaringBitmap();
+        genreRepository.streamGameIds(gameId -> add(games, gameId));
+        Map<String, String> names = new HashMap<>();
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        genreRepository.streamGenres((gameId, genre) -> {
+            String key = key(genre);
+            names.putIfAbsent(key, genre);
+            add(bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()), gameId);
+        });
+        games.runOptimize();
+        facets.clear();
+        bitmaps.forEach((key, bitmap) -> {
+            bitmap.runOptimize();
+            facets.put(key, new Facet(names.get(key), bitmap));
+        });
+        allGames = games;
+        ready = true;
+        log.info("Indexed {} games under {} genres in {}ms",
+                games.getLongCardinality(), facets.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onGamesChanged(GamesChangedEvent event) {
+        RoaringBitmap changed = new RoaringBitmap();
+        event.getRemovedIds().forEach(gameId -> add(changed, gameId));
+        event.getUpsertedIds().forEach(gameId -> add(changed, gameId));
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        RoaringBitmap existing = new RoaringBitmap();
+        genreRepository.streamExistingIds(event.getUpsertedIds(), gameId -> add(existing, gameId));
+        Map<String, String> names = new HashMap<>();
+        Map<String, RoaringBitmap> added = new HashMap<>();
+        genreRepository.streamGenres(event.getUpsertedIds(), (gameId, genre) -> {
+            String key = key(genre);
+            names.putIfAbsent(key, genre);
+            add(added.computeIfAbsent(key, k -> new RoaringBitmap()), gameId);
+        });
+
+        RoaringBitmap games = RoaringBitmap.andNot(allGames, changed);
+        games.or(existing);
+        allGames = games;
+
+        for (Facet facet : new ArrayList<>(facets.values())) {
+            String key = key(facet.getName());
+            if (RoaringBitmap.intersects(facet.getGames(), changed) || added.containsKey(key)) {
+                RoaringBitmap updated = RoaringBitmap.andNot(facet.getGames(), changed);
+                RoaringBitmap additions = added.remove(key);
+                if (additions != null) {
+                    updated.or(additions);
+                }
+                if (updated.isEmpty()) {
+                    facets.remove(key);
+                } else {
+                    facets.put(key, new Facet(facet.getName(), updated));
+                }
+            }
+        }
+        // Genres no indexed game had before
+        added.forEach((key, bitmap) -> facets.put(key, new Facet(names.get(key), bitmap)));
+    }
+
+    /**
+     * Ids of the games having every genre of {@code allOf} and at least one of {@code anyOf};
+     * an empty collection doesn't constrain. The result is a new bitmap the caller may modify,
+     * e.g. to intersect it with other filters.
+     */
+    public RoaringBitmap filter(Collection<String> allOf, Collection<String> anyOf) {
+        List<String> allKeys = keys(allOf);
+        List<String> anyKeys = keys(anyOf);
+        RoaringBitmap matches;
+        if (allKeys.isEmpty()) {
+            matches = allGames.clone();
+        } else {
+            List<RoaringBitmap> required = bitmaps(allKeys);
+            if (required.size() < allKeys.size()) {
+                // A required genre no game has
+                return new RoaringBitmap();
+            }
+            // Published bitmaps are shared, only the aggregation of several is a fresh copy
+            matches = required.size() == 1 ? required.get(0).clone() : FastAggregation.and(required.iterator());
+        }
+        if (!anyKeys.isEmpty()) {
+            matches.and(FastAggregation.or(bitmaps(anyKeys).iterator()));
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the games matching the filter and, among them, the games of every genre.
+     */
+    public GenreFacetsDTO facets(Collection<String> allOf, Collection<String> anyOf) {
+        RoaringBitmap matches = filter(allOf, anyOf);
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Facet facet : facets.values()) {
+            long count = RoaringBitmap.andCardinality(facet.getGames(), matches);
+            if (count > 0) {
+                counts.add(Map.entry(facet.getName(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> genreCounts = new LinkedHashMap<>();
+        counts.forEach(count -> genreCounts.put(count.getKey(), count.getValue()));
+        return new GenreFacetsDTO(matches.getLongCardinality(), genreCounts);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the genres constrain {@link #filter} at all.
+     */
+    public static boolean hasGenres(Collection<String> allOf, Collection<String> anyOf) {
+        return !keys(allOf).isEmpty() || !keys(anyOf).isEmpty();
+    }
+
+    public static boolean contains(RoaringBitmap games, long gameId) {
+        return gameId >= 0 && gameId <= MAX_GAME_ID && games.contains((int) gameId);
+    }
+
+    public static List<Long> gameIds(RoaringBitmap games) {
+        List<Long> gameIds = new ArrayList<>(games.getCardinality());
+        games.forEach((int gameId) -> gameIds.add(Integer.toUnsignedLong(gameId)));
+        return gameIds;
+    }
+
+    // Bitmaps of the known genres among the keys
+    private List<RoaringBitmap> bitmaps(List<String> keys) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String key : keys) {
+            Facet facet = facets.get(key);
+            if (facet != null) {
+                bitmaps.add(facet.getGames());
+            }
+        }
+        return bitmaps;
+    }
+
+    private static List<String> keys(Collection<String> genres) {
+        return genres.stream()
+                .map(GenreFacetIndex::key)
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static String key(String genre) {
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void add(RoaringBitmap bitmap, long gameId) {
+        if (gameId < 0 || gameId > MAX_GAME_ID) {
+            log.warn("Game id {} does not fit the genre facet index, skipping it", gameId);
+            return;
+        }
+        bitmap.add((int) gameId);
+    }
+
+    @Value
+    private static class Facet {
+        String name;
+        RoaringBitmap games;
+    }
+}
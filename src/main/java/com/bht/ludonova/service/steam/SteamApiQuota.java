@@ -0,0 +1,208 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.exception.SteamAuthenticationException;
+import com.bht.ludonova.repository.SteamApiUsageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side budget for the Steam Web API key: a token bucket refilled at
+ * {@code steam.api.requests-per-second} plus a counter of calls made since midnight UTC
+ * that is checked against {@code steam.api.daily-quota}. Every call to
+ * api.steampowered.com should go through {@link #acquire()}, {@link #tryAcquire()} or {@link #record()}.
+ * <p>
+ * The day's count is kept in {@code steam_api_usage}: it is read at startup and the calls made
+ * since are added every {@code steam.api.quota-flush-interval}, which also picks up the calls
+ * of other instances sharing the key. A restart therefore loses at most one interval of calls.
+ */
+@Slf4j
+@Component
+public class SteamApiQuota {
+    private final double requestsPerSecond;
+    private final long dailyQuota;
+    private final Clock clock = Clock.systemUTC();
+    private final Counter requestCounter;
+    private final SteamApiUsageRepository usageRepository;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private LocalDate quotaDay = LocalDate.now(clock);
+    private long usedToday;
+    // Calls counted in usedToday but not yet added to steam_api_usage
+    private long unflushed;
+
+    public SteamApiQuota(
+            @Value("${steam.api.requests-per-second:5}") double requestsPerSecond,
+            @Value("${steam.api.daily-quota:100000}") long dailyQuota,
+            MeterRegistry meterRegistry,
+            SteamApiUsageRepository usageRepository) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.usageRepository = usageRepository;
+        this.dailyQuota = dailyQuota;
+        this.tokens = requestsPerSecond;
+
+        this.requestCounter = Counter.builder("ludonova.steam.api.requests")
+                .description("Calls made against the Steam Web API key")
+                .register(meterRegistry);
+        Gauge.builder("ludonova.steam.api.quota.used", this, SteamApiQuota::usedRatio)
+                .description("Fraction of today's Steam Web API quota already used")
+                .register(meterRegistry);
+        Gauge.builder("ludonova.steam.api.quota.remaining", this, SteamApiQuota::remainingToday)
+                .description("Steam Web API calls left today")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until the per-second budget allows another call and counts it against the daily quota.
+     *
+     * @throws SteamAuthenticationException if today's quota is used up
+     */
+    public void acquire() {
+        long waitNanos;
+        synchronized (this) {
+            rollOverDay();
+            if (usedToday >= dailyQuota) {
+                throw new SteamAuthenticationException("Steam API daily quota exhausted", "STEAM_QUOTA_EXHAUSTED");
+            }
+            refill();
+            // Reserve the token now; a negative balance is the queue of callers still waiting
+            tokens -= 1;
+            usedToday++;
+            unflushed++;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / requestsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        }
+        requestCounter.increment();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SteamAuthenticationException("Interrupted while waiting for Steam API budget");
+            }
+        }
+    }
+
+    /**
+     * Takes a call from the budget without waiting, for request threads that must not be parked.
+     *
+     * @throws SteamAuthenticationException if the per-second budget or today's quota is used up
+     */
+    public void tryAcquire() {
+        synchronized (this) {
+            rollOverDay();
+            if (usedToday >= dailyQuota) {
+                throw new SteamAuthenticationException("Steam API daily quota exhausted", "STEAM_QUOTA_EXHAUSTED");
+            }
+            refill();
+            if (tokens < 1) {
+                throw new SteamAuthenticationException("Steam API is busy, please try again shortly", "STEAM_RATE_LIMITED");
+            }
+            tokens -= 1;
+            usedToday++;
+            unflushed++;
+        }
+        requestCounter.increment();
+    }
+
+    /**
+     * Counts a call that must not wait, such as one on the login path.
+     */
+    public void record() {
+        synchronized (this) {
+            rollOverDay();
+            refill();
+            tokens -= 1;
+            usedToday++;
+            unflushed++;
+        }
+        requestCounter.increment();
+    }
+
+    @PostConstruct
+    void loadUsage() {
+        flush();
+        log.info("Steam API quota: {} of {} calls used today", usedToday, dailyQuota);
+    }
+
+    /**
+     * Adds the calls made since the last flush to the stored count and adopts the stored
+     * total, which includes the calls of other instances. Calls that fail to store are kept
+     * for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${steam.api.quota-flush-interval:PT30S}",
+            initialDelayString = "${steam.api.quota-flush-interval:PT30S}")
+    @PreDestroy
+    public void flush() {
+        LocalDate day;
+        long calls;
+        synchronized (this) {
+            rollOverDay();
+            day = quotaDay;
+            calls = unflushed;
+            unflushed = 0;
+        }
+        try {
+            long total = usageRepository.addCalls(day, calls);
+            synchronized (this) {
+                if (day.equals(quotaDay)) {
+                    usedToday = Math.max(usedToday, total + unflushed);
+                }
+            }
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                if (day.equals(quotaDay)) {
+                    unflushed += calls;
+                }
+            }
+            log.warn("Failed to store Steam API usage, keeping {} calls for the next flush: {}", calls, e.getMessage());
+        }
+    }
+
+    public synchronized long remainingToday() {
+        rollOverDay();
+        return Math.max(0, dailyQuota - usedToday);
+    }
+
+    public synchronized double usedRatio() {
+        rollOverDay();
+        return dailyQuota == 0 ? 1.0 : (double) usedToday / dailyQuota;
+    }
+
+    public long getDailyQuota() {
+        return dailyQuota;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double refilled = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1) * requestsPerSecond;
+        tokens = Math.min(requestsPerSecond, tokens + refilled);
+        lastRefillNanos = now;
+    }
+
+    private void rollOverDay() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(quotaDay)) {
+            log.info("Resetting Steam API quota, {} calls used on {}", usedToday, quotaDay);
+            quotaDay = today;
+            usedToday = 0;
+            // Yesterday's quota no longer matters, so neither do its unflushed calls
+            unflushed = 0;
+        }
+    }
+}
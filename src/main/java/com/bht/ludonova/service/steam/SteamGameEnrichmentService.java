@@ -0,0 +1,240 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.rawg.RawgGameDTO;
+import com.bht.ludonova.dto.rawg.RawgSearchResponseDTO;
+import com.bht.ludonova.dto.steam.SteamAppDetailsDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.repository.GameMetadataRepository;
+import com.bht.ludonova.repository.GameMetadataRepository.GameMetadata;
+import com.bht.ludonova.repository.GameMetadataRepository.SteamGameRef;
+import com.bht.ludonova.service.RawgService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Fills in description, genres, release date and rating for Steam-sourced games. Newly
+ * created games are queued after their transaction commits, and a periodic sweep picks up
+ * anything still unenriched (e.g. after a restart). Lookups go to the Steam store first and
+ * fall back to a RAWG title search when the store does not know the app; results are written
+ * back in batches.
+ */
+@Slf4j
+@Service
+public class SteamGameEnrichmentService {
+    private static final List<DateTimeFormatter> STORE_DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("d MMM, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("d MMMM, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH));
+
+    private final SteamStoreClient storeClient;
+    private final RawgService rawgService;
+    private final GameMetadataRepository metadataRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int concurrency;
+    private final Duration requestInterval;
+    private final int persistBatchSize;
+    private final int sweepBatchSize;
+
+    // Games queued or being looked up, so each game is in the pipeline at most once
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Sinks.Many<SteamGameRef> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private Disposable pipeline;
+
+    public SteamGameEnrichmentService(
+            SteamStoreClient storeClient,
+            RawgService rawgService,
+            GameMetadataRepository metadataRepository,
+            CacheManager cacheManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${steam.enrichment.enabled:true}") boolean enabled,
+            @Value("${steam.enrichment.concurrency:2}") int concurrency,
+            @Value("${steam.enrichment.request-interval:PT1.5S}") Duration requestInterval,
+            @Value("${steam.enrichment.persist-batch-size:50}") int persistBatchSize,
+            @Value("${steam.enrichment.sweep-batch-size:500}") int sweepBatchSize) {
+        this.storeClient = storeClient;
+        this.rawgService = rawgService;
+        this.metadataRepository = metadataRepository;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.concurrency = concurrency;
+        this.requestInterval = requestInterval;
+        this.persistBatchSize = persistBatchSize;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @PostConstruct
+    void startPipeline() {
+        // The store allows roughly 200 requests per 5 minutes, so lookups are paced as well as bounded
+        pipeline = queue.asFlux()
+                .delayElements(requestInterval)
+                .flatMap(this::lookup, concurrency)
+                .bufferTimeout(persistBatchSize, Duration.ofSeconds(5))
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(this::persist, e -> log.error("Steam game enrichment pipeline stopped", e));
+    }
+
+    @PreDestroy
+    void stopPipeline() {
+        pipeline.dispose();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSteamGamesCreated(SteamGamesCreatedEvent event) {
+        event.getGames().forEach(this::enqueue);
+    }
+
+    @Scheduled(fixedDelayString = "${steam.enrichment.sweep-interval:PT15M}",
+            initialDelayString = "${steam.enrichment.sweep-initial-delay:PT1M}")
+    public void sweepUnenrichedGames() {
+        if (!enabled) {
+            return;
+        }
+        int queued = 0;
+        for (SteamGameRef game : metadataRepository.findUnenrichedSteamGames(sweepBatchSize)) {
+            if (enqueue(game)) {
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            log.info("Queued {} unenriched Steam games for metadata lookup", queued);
+        }
+    }
+
+    public int getQueuedCount() {
+        return inFlight.size();
+    }
+
+    private boolean enqueue(SteamGameRef game) {
+        if (!enabled || !inFlight.add(game.getGameId())) {
+            return false;
+        }
+        queue.emitNext(game, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        return true;
+    }
+
+    // Only a store that answered without the app falls back to RAWG, and only when both
+    // answered without a match is the game marked as looked up; errors such as store
+    // throttling leave it for the next sweep
+    private Mono<GameMetadata> lookup(SteamGameRef game) {
+        return storeClient.fetchAppDetails(game.getAppId())
+                .map(details -> fromStore(game.getGameId(), details))
+                .switchIfEmpty(Mono.defer(() -> lookupOnRawg(game)))
+                .defaultIfEmpty(GameMetadata.notFound(game.getGameId()))
+                .onErrorResume(e -> {
+                    // Left unenriched so the next sweep retries it
+                    log.warn("Metadata lookup for Steam app {} ({}) failed: {}", game.getAppId(), game.getTitle(), e.getMessage());
+                    inFlight.remove(game.getGameId());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<GameMetadata> lookupOnRawg(SteamGameRef game) {
+        return Mono.fromCallable(() -> {
+                    RawgSearchResponseDTO results = rawgService.searchGames(game.getTitle(), 1);
+                    if (results == null || results.getResults() == null) {
+                        return null;
+                    }
+                    String title = normalize(game.getTitle());
+                    RawgGameDTO match = results.getResults().stream()
+                            .filter(candidate -> candidate.getName() != null && normalize(candidate.getName()).equals(title))
+                            .findFirst()
+                            .orElse(null);
+                    if (match == null) {
+                        return null;
+                    }
+                    RawgGameDTO details = rawgService.getGameDetails(match.getId());
+                    return fromRawg(game.getGameId(), details != null ? details : match);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void persist(List<GameMetadata> batch) {
+        try {
+            metadataRepository.applyMetadata(batch);
+            eventPublisher.publishEvent(GamesChangedEvent.upserted(
+                    batch.stream().map(GameMetadata::getGameId).collect(Collectors.toList())));
+            Cache games = cacheManager.getCache("games");
+            if (games != null) {
+                batch.forEach(metadata -> games.evict(metadata.getGameId()));
+            }
+            log.debug("Stored metadata for {} Steam games", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to store metadata for {} Steam games: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.forEach(metadata -> inFlight.remove(metadata.getGameId()));
+        }
+    }
+
+    private static GameMetadata fromStore(long gameId, SteamAppDetailsDTO.AppData details) {
+        Set<String> genres = details.getGenres() == null ? Set.of() : details.getGenres().stream()
+                .map(SteamAppDetailsDTO.Genre::getDescription)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        // Metacritic scores are out of 100, game ratings use RAWG's five-point scale
+        Double rating = details.getMetacritic() != null && details.getMetacritic().getScore() != null
+                ? details.getMetacritic().getScore() / 20.0
+                : null;
+        return new GameMetadata(gameId, blankToNull(details.getShortDescription()),
+                parseReleaseDate(details.getReleaseDate()), rating, genres);
+    }
+
+    private static GameMetadata fromRawg(long gameId, RawgGameDTO details) {
+        Set<String> genres = details.getGenres() == null ? Set.of() : details.getGenres().stream()
+                .map(RawgGameDTO.Genre::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Double rating = details.getRating() != null && details.getRating() > 0 ? details.getRating() : null;
+        return new GameMetadata(gameId, blankToNull(details.getDescription()), details.getReleaseDate(), rating, genres);
+    }
+
+    private static LocalDate parseReleaseDate(SteamAppDetailsDTO.ReleaseDate releaseDate) {
+        if (releaseDate == null || releaseDate.isComingSoon() || releaseDate.getDate() == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : STORE_DATE_FORMATS) {
+            try {
+                return LocalDate.parse(releaseDate.getDate().trim(), format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String title) {
+        return title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.repository.GameMetadataRepository.SteamGameRef;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published when Steam games are inserted into the catalog, so their metadata can be
+ * filled in once the inserting transaction has committed.
+ */
+@Value
+public class SteamGamesCreatedEvent {
+    List<SteamGameRef> games;
+}
@@ -0,0 +1,159 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable snapshot of a Steam library as of the last sync: for every app id the
+ * {@code playtime_forever} and {@code rtime_last_played} values Steam reported.
+ * Entries are kept in parallel arrays sorted by app id and stored deflated, which keeps
+ * a several-thousand-game library at a few kilobytes.
+ */
+public final class SteamLibraryFingerprint {
+    private static final byte FORMAT_VERSION = 1;
+    private static final SteamLibraryFingerprint EMPTY = new SteamLibraryFingerprint(new long[0], new int[0], new long[0]);
+
+    private final long[] appIds;
+    private final int[] playtimes;
+    private final long[] lastPlayed;
+
+    private SteamLibraryFingerprint(long[] appIds, int[] playtimes, long[] lastPlayed) {
+        this.appIds = appIds;
+        this.playtimes = playtimes;
+        this.lastPlayed = lastPlayed;
+    }
+
+    public static SteamLibraryFingerprint empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return appIds.length;
+    }
+
+    /**
+     * Whether the given game is recorded with exactly the same playtime and last-played time.
+     */
+    public boolean matches(SteamGamesResponseDTO.Game game) {
+        if (game.getAppId() == null) {
+            return false;
+        }
+        int index = Arrays.binarySearch(appIds, game.getAppId());
+        return index >= 0
+                && playtimes[index] == playtimeOf(game)
+                && lastPlayed[index] == lastPlayedOf(game);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(appIds.length);
+            long previous = 0;
+            for (int i = 0; i < appIds.length; i++) {
+                // App ids are sorted, so deltas are small and compress well
+                out.writeLong(appIds[i] - previous);
+                out.writeInt(playtimes[i]);
+                out.writeLong(lastPlayed[i]);
+                previous = appIds[i];
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SteamLibraryFingerprint decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(encoded)))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported fingerprint format version " + version);
+            }
+            int count = in.readInt();
+            long[] appIds = new long[count];
+            int[] playtimes = new int[count];
+            long[] lastPlayed = new long[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                appIds[i] = previous + in.readLong();
+                playtimes[i] = in.readInt();
+                lastPlayed[i] = in.readLong();
+                previous = appIds[i];
+            }
+            return new SteamLibraryFingerprint(appIds, playtimes, lastPlayed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int playtimeOf(SteamGamesResponseDTO.Game game) {
+        return Objects.requireNonNullElse(game.getPlaytimeMinutes(), 0);
+    }
+
+    private static long lastPlayedOf(SteamGamesResponseDTO.Game game) {
+        return Objects.requireNonNullElse(game.getLastPlayedTimestamp(), 0L);
+    }
+
+    /**
+     * Collects entries in any order; duplicates keep the last value added.
+     */
+    public static class Builder {
+        private long[] appIds = new long[64];
+        private int[] playtimes = new int[64];
+        private long[] lastPlayed = new long[64];
+        private int size;
+
+        public Builder add(SteamGamesResponseDTO.Game game) {
+            if (game.getAppId() == null) {
+                return this;
+            }
+            if (size == appIds.length) {
+                appIds = Arrays.copyOf(appIds, size * 2);
+                playtimes = Arrays.copyOf(playtimes, size * 2);
+                lastPlayed = Arrays.copyOf(lastPlayed, size * 2);
+            }
+            appIds[size] = game.getAppId();
+            playtimes[size] = playtimeOf(game);
+            lastPlayed[size] = lastPlayedOf(game);
+            size++;
+            return this;
+        }
+
+        public SteamLibraryFingerprint build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // Stable sort so that for duplicate app ids the entry added last wins below
+            Arrays.sort(order, (a, b) -> Long.compare(appIds[a], appIds[b]));
+
+            long[] sortedIds = new long[size];
+            int[] sortedPlaytimes = new int[size];
+            long[] sortedLastPlayed = new long[size];
+            int count = 0;
+            for (int index : order) {
+                if (count > 0 && sortedIds[count - 1] == appIds[index]) {
+                    count--;
+                }
+                sortedIds[count] = appIds[index];
+                sortedPlaytimes[count] = playtimes[index];
+                sortedLastPlayed[count] = lastPlayed[index];
+                count++;
+            }
+            return new SteamLibraryFingerprint(
+                    Arrays.copyOf(sortedIds, count),
+                    Arrays.copyOf(sortedPlaytimes, count),
+                    Arrays.copyOf(sortedLastPlayed, count));
+        }
+    }
+}
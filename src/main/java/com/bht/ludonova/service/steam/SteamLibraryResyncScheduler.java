@@ -0,0 +1,127 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically re-syncs the libraries of all Steam-connected users, least recently attempted
+ * first. Users whose syncs keep failing (private profile, deleted account) back off from
+ * {@code steam.resync.failure-backoff}, doubling per failure up to the interval, so they
+ * don't hold the head of the queue.
+ * Each tick only submits as many syncs as needed to cycle through every user once per
+ * {@code steam.resync.interval}, bounded by the background share of today's remaining
+ * Steam API quota and by the per-second request budget.
+ */
+@Slf4j
+@Component
+public class SteamLibraryResyncScheduler {
+    private final UserRepository userRepository;
+    private final SteamSyncJobService syncJobService;
+    private final SteamApiQuota steamApiQuota;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration tick;
+    private final double quotaShare;
+    private final Duration failureBackoff;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter submittedCounter;
+
+    public SteamLibraryResyncScheduler(
+            UserRepository userRepository,
+            SteamSyncJobService syncJobService,
+            SteamApiQuota steamApiQuota,
+            MeterRegistry meterRegistry,
+            @Value("${steam.resync.enabled:true}") boolean enabled,
+            @Value("${steam.resync.interval:PT24H}") Duration interval,
+            @Value("${steam.resync.tick:PT1M}") Duration tick,
+            @Value("${steam.resync.quota-share:0.8}") double quotaShare,
+            @Value("${steam.resync.failure-backoff:PT1H}") Duration failureBackoff) {
+        this.userRepository = userRepository;
+        this.syncJobService = syncJobService;
+        this.steamApiQuota = steamApiQuota;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.tick = tick;
+        this.quotaShare = quotaShare;
+        this.failureBackoff = failureBackoff;
+
+        Gauge.builder("ludonova.steam.resync.backlog", backlog, AtomicLong::get)
+                .description("Steam-connected users whose library is older than the resync interval")
+                .register(meterRegistry);
+        this.submittedCounter = Counter.builder("ludonova.steam.resync.submitted")
+                .description("Background library syncs started by the resync scheduler")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${steam.resync.tick:PT1M}", initialDelayString = "${steam.resync.initial-delay:PT2M}")
+    public void resyncStaleLibraries() {
+        if (!enabled) {
+            return;
+        }
+
+        long due = userRepository.countSteamUsersDueForSync(interval.toSeconds());
+        backlog.set(due);
+        int batchSize = (int) Math.min(due, batchSize());
+        if (batchSize <= 0) {
+            return;
+        }
+
+        int submitted = 0;
+        for (Long userId : userRepository.findSteamUserIdsDueForSync(
+                interval.toSeconds(), failureBackoff.toSeconds(), interval.toSeconds(), batchSize)) {
+            if (!syncJobService.hasIdleWorker()) {
+                break;
+            }
+            try {
+                var user = userRepository.findById(userId);
+                if (user.isPresent()) {
+                    syncJobService.submit(user.get());
+                    submittedCounter.increment();
+                    submitted++;
+                }
+            } catch (TaskRejectedException e) {
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Could not schedule Steam resync for user {}: {}", userId, e.getMessage());
+            }
+        }
+        log.debug("Scheduled {} Steam library resyncs, {} users due", submitted, due);
+    }
+
+    private long batchSize() {
+        // Even share: every Steam user once per interval
+        long steamUsers = userRepository.countBySteamUserIsNotNull();
+        double ticksPerInterval = Math.max(1.0, (double) interval.toMillis() / tick.toMillis());
+        long evenShare = (long) Math.ceil(steamUsers / ticksPerInterval);
+
+        // Quota share: what background work may still spend today, spread over the ticks left until reset
+        long reservedForUsers = (long) (steamApiQuota.getDailyQuota() * (1 - quotaShare));
+        long available = steamApiQuota.remainingToday() - reservedForUsers;
+        if (available <= 0) {
+            return 0;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        Duration untilReset = Duration.between(now, LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC));
+        long ticksLeftToday = Math.max(1, untilReset.toMillis() / tick.toMillis());
+        long quotaShareBatch = (long) Math.ceil((double) available / ticksLeftToday);
+
+        // Rate share: never more calls than the per-second budget refills within one tick
+        long rateBatch = (long) (steamApiQuota.getRequestsPerSecond() * tick.toSeconds());
+
+        return Math.min(evenShare, Math.min(quotaShareBatch, rateBatch));
+    }
+}
@@ -0,0 +1,272 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import com.bht.ludonova.event.GamesChangedEvent;
+import com.bht.ludonova.mapper.RawgGameMapper;
+import com.bht.ludonova.model.enums.GameSource;
+import com.bht.ludonova.repository.GameMetadataRepository.SteamGameRef;
+import com.bht.ludonova.repository.GameResolutionRepository;
+import com.bht.ludonova.repository.PlaytimeHistoryRepository;
+import com.bht.ludonova.repository.PlaytimeHistoryRepository.PlaytimeDelta;
+import com.bht.ludonova.repository.SteamLibraryBulkRepository;
+import com.bht.ludonova.repository.SteamLibraryBulkRepository.InstanceState;
+import com.bht.ludonova.repository.SteamLibraryBulkRepository.NewSteamGame;
+import com.bht.ludonova.service.catalog.GameEntityResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a Steam library into {@code games} / {@code game_instances} chunk by chunk.
+ * Every chunk runs in its own transaction, so a large library never holds a single
+ * long-running transaction and a failing chunk does not roll back the ones before it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SteamLibrarySyncEngine {
+    private final SteamLibraryBulkRepository bulkRepository;
+    private final GameResolutionRepository resolutionRepository;
+    private final GameEntityResolver entityResolver;
+    private final PlaytimeHistoryRepository playtimeHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${steam.sync.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Syncs the given library, skipping every game whose playtime and last-played time are
+     * unchanged since the user's previous sync, and records the new state as the fingerprint.
+     * Games are consumed in chunks as they arrive, with at most one chunk buffered ahead.
+     */
+    public SteamSyncResult sync(Long userId, Flux<SteamGamesResponseDTO.Game> games, SteamSyncProgress progress) {
+        SteamLibraryFingerprint previous = loadFingerprint(userId);
+        SteamLibraryFingerprint.Builder next = new SteamLibraryFingerprint.Builder();
+        SteamSyncResult result = new SteamSyncResult();
+        int skipped = 0;
+
+        for (List<SteamGamesResponseDTO.Game> chunk : games.buffer(chunkSize).toIterable(1)) {
+            List<SteamGamesResponseDTO.Game> changed = new ArrayList<>();
+            for (SteamGamesResponseDTO.Game steamGame : chunk) {
+                if (previous.matches(steamGame)) {
+                    next.add(steamGame);
+                } else {
+                    changed.add(steamGame);
+                }
+            }
+
+            SteamSyncResult chunkResult = changed.isEmpty() ? new SteamSyncResult() : syncChunk(userId, changed);
+            int unchangedInChunk = chunk.size() - changed.size();
+            skipped += unchangedInChunk;
+            chunkResult.setUnchanged(chunkResult.getUnchanged() + unchangedInChunk);
+            changed.stream()
+                    .filter(steamGame -> !chunkResult.getFailedAppIds().contains(steamGame.getAppId()))
+                    .forEach(next::add);
+
+            result.add(chunkResult);
+            progress.onChunkSynced(chunkResult);
+        }
+
+        SteamLibraryFingerprint fingerprint = next.build();
+        bulkRepository.saveFingerprint(userId, fingerprint.encode(), fingerprint.size());
+        log.debug("Steam sync for user {} skipped {} of {} games via fingerprint",
+                userId, skipped, result.getProcessed());
+        return result;
+    }
+
+    public SteamSyncResult syncChunk(Long userId, List<SteamGamesResponseDTO.Game> chunk) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(userId, chunk));
+        } catch (DataAccessException e) {
+            log.error("Failed to sync chunk of {} Steam games for user {}: {}", chunk.size(), userId, e.getMessage());
+            SteamSyncResult result = new SteamSyncResult();
+            chunk.forEach(steamGame -> result.markFailed(steamGame.getAppId()));
+            return result;
+        }
+    }
+
+    private SteamLibraryFingerprint loadFingerprint(Long userId) {
+        try {
+            return bulkRepository.findFingerprint(userId)
+                    .map(SteamLibraryFingerprint::decode)
+                    .orElse(SteamLibraryFingerprint.empty());
+        } catch (RuntimeException e) {
+            log.warn("Discarding unreadable Steam library fingerprint for user {}: {}", userId, e.getMessage());
+            return SteamLibraryFingerprint.empty();
+        }
+    }
+
+    private SteamSyncResult writeChunk(Long userId, List<SteamGamesResponseDTO.Game> chunk) {
+        SteamSyncResult result = new SteamSyncResult();
+
+        // Deduplicate by app id, dropping entries Steam sent without the fields we need
+        Map<String, SteamGamesResponseDTO.Game> byAppId = new LinkedHashMap<>();
+        for (SteamGamesResponseDTO.Game steamGame : chunk) {
+            if (steamGame.getAppId() == null || steamGame.getName() == null || steamGame.getName().isBlank()) {
+                result.markFailed(steamGame.getAppId());
+                continue;
+            }
+            byAppId.put(steamGame.getAppId().toString(), steamGame);
+        }
+
+        Map<String, Long> gameIds = resolveGameIds(byAppId);
+
+        Map<Long, InstanceState> existing = bulkRepository.findInstanceState(userId, gameIds.values());
+        List<InstanceState> writes = new ArrayList<>();
+        List<PlaytimeDelta> deltas = new ArrayList<>();
+        for (Map.Entry<String, SteamGamesResponseDTO.Game> entry : byAppId.entrySet()) {
+            Long gameId = gameIds.get(entry.getKey());
+            if (gameId == null) {
+                log.warn("Could not create game record for Steam app {} ({})", entry.getKey(), entry.getValue().getName());
+                result.markFailed(entry.getValue().getAppId());
+                continue;
+            }
+
+            SteamGamesResponseDTO.Game steamGame = entry.getValue();
+            InstanceState incoming = new InstanceState(gameId, steamGame.getPlaytimeMinutes(), lastPlayedAt(steamGame));
+            InstanceState current = existing.get(gameId);
+            if (current == null) {
+                writes.add(incoming);
+                result.setCreated(result.getCreated() + 1);
+            } else if (hasChanged(current, incoming)) {
+                writes.add(incoming);
+                result.setUpdated(result.getUpdated() + 1);
+                playtimeDelta(current, incoming).ifPresent(deltas::add);
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+        }
+
+        bulkRepository.upsertInstances(userId, writes);
+        playtimeHistoryRepository.recordDeltas(userId, deltas);
+        return result;
+    }
+
+    /**
+     * Looks up the {@code games} rows for the given app ids, maps app ids onto games already
+     * in the catalog from another source, and inserts the rest. Titles whose slug is already
+     * taken are retried once with the app id appended. Inserted games are announced with a
+     * {@link SteamGamesCreatedEvent}.
+     */
+    private Map<String, Long> resolveGameIds(Map<String, SteamGamesResponseDTO.Game> byAppId) {
+        Map<String, Long> gameIds = bulkRepository.findSteamGameIds(byAppId.keySet());
+
+        Map<String, Long> resolved = new HashMap<>();
+        for (SteamGamesResponseDTO.Game steamGame : missingGames(byAppId, gameIds)) {
+            entityResolver.resolve(steamGame.getName(), null, GameSource.STEAM)
+                    .ifPresent(gameId -> resolved.put(steamGame.getAppId().toString(), gameId));
+        }
+        if (!resolved.isEmpty()) {
+            resolutionRepository.saveAliases(GameSource.STEAM, resolved);
+            gameIds.putAll(resolved);
+        }
+
+        List<SteamGamesResponseDTO.Game> missing = missingGames(byAppId, gameIds);
+        if (!missing.isEmpty()) {
+            List<SteamGamesResponseDTO.Game> inserted = missing;
+            bulkRepository.insertSteamGames(toNewGames(missing, false));
+            gameIds.putAll(bulkRepository.findSteamGameIds(appIds(missing)));
+
+            missing = missingGames(byAppId, gameIds);
+            if (!missing.isEmpty()) {
+                bulkRepository.insertSteamGames(toNewGames(missing, true));
+                gameIds.putAll(bulkRepository.findSteamGameIds(appIds(missing)));
+            }
+
+            List<SteamGameRef> created = inserted.stream()
+                    .filter(steamGame -> gameIds.containsKey(steamGame.getAppId().toString()))
+                    .map(steamGame -> new SteamGameRef(gameIds.get(steamGame.getAppId().toString()),
+                            steamGame.getAppId().toString(), steamGame.getName()))
+                    .collect(Collectors.toList());
+            if (!created.isEmpty()) {
+                eventPublisher.publishEvent(new SteamGamesCreatedEvent(created));
+                eventPublisher.publishEvent(GamesChangedEvent.upserted(
+                        created.stream().map(SteamGameRef::getGameId).collect(Collectors.toList())));
+            }
+        }
+        return gameIds;
+    }
+
+    private List<SteamGamesResponseDTO.Game> missingGames(Map<String, SteamGamesResponseDTO.Game> byAppId,
+                                                         Map<String, Long> gameIds) {
+        return byAppId.entrySet().stream()
+                .filter(entry -> !gameIds.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> appIds(List<SteamGamesResponseDTO.Game> games) {
+        return games.stream()
+                .map(game -> game.getAppId().toString())
+                .collect(Collectors.toList());
+    }
+
+    private List<NewSteamGame> toNewGames(List<SteamGamesResponseDTO.Game> games, boolean qualifySlug) {
+        return games.stream()
+                .map(game -> {
+                    String slug = RawgGameMapper.generateSlug(game.getName());
+                    if (qualifySlug || slug.isEmpty()) {
+                        slug = slug.isEmpty() ? "steam-" + game.getAppId() : slug + "-" + game.getAppId();
+                    }
+                    return new NewSteamGame(
+                            game.getAppId().toString(),
+                            game.getName(),
+                            slug,
+                            "https://cdn.cloudflare.steamstatic.com/steam/apps/" + game.getAppId() + "/header.jpg");
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static boolean hasChanged(InstanceState current, InstanceState incoming) {
+        if (!Objects.equals(current.getPlaytimeMinutes(), incoming.getPlaytimeMinutes())) {
+            return true;
+        }
+        // A missing timestamp never clears the stored one, see the upsert statement
+        return incoming.getLastPlayedAt() != null
+                && !incoming.getLastPlayedAt().equals(current.getLastPlayedAt());
+    }
+
+    /**
+     * The playtime change between two syncs of an existing instance. It is attributed to the
+     * game's last-played time when Steam reports a newer one, otherwise to the sync time.
+     * Newly added games have no baseline and record no delta.
+     */
+    private static Optional<PlaytimeDelta> playtimeDelta(InstanceState current, InstanceState incoming) {
+        if (incoming.getPlaytimeMinutes() == null
+                || Objects.equals(current.getPlaytimeMinutes(), incoming.getPlaytimeMinutes())) {
+            return Optional.empty();
+        }
+        int previous = current.getPlaytimeMinutes() != null ? current.getPlaytimeMinutes() : 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp recordedAt = incoming.getLastPlayedAt() != null
+                && !incoming.getLastPlayedAt().equals(current.getLastPlayedAt())
+                && incoming.getLastPlayedAt().before(now)
+                ? incoming.getLastPlayedAt()
+                : now;
+        return Optional.of(new PlaytimeDelta(incoming.getGameId(), recordedAt,
+                incoming.getPlaytimeMinutes() - previous, incoming.getPlaytimeMinutes()));
+    }
+
+    private static Timestamp lastPlayedAt(SteamGamesResponseDTO.Game steamGame) {
+        if (steamGame.getLastPlayedTimestamp() != null && steamGame.getLastPlayedTimestamp() > 0) {
+            return new Timestamp(steamGame.getLastPlayedTimestamp() * 1000L);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Incrementally decodes a {@code GetOwnedGames} response. Bytes are pushed into a
+ * non-blocking Jackson parser as they arrive and every element of {@code response.games}
+ * is emitted as soon as its closing brace has been read, so memory use depends on the
+ * size of one game entry rather than the size of the library.
+ */
+@Component
+public class SteamOwnedGamesDecoder {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader gameReader;
+
+    public SteamOwnedGamesDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Steam adds fields to game entries over time, never fail on the ones we don't map
+        this.gameReader = objectMapper.readerFor(SteamGamesResponseDTO.Game.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @param onGameCount called with {@code response.game_count} once it has been parsed
+     */
+    public Flux<SteamGamesResponseDTO.Game> decode(Flux<DataBuffer> body, IntConsumer onGameCount) {
+        return Flux.defer(() -> {
+            GameStream stream = new GameStream(onGameCount);
+            return body
+                    .concatMapIterable(buffer -> {
+                        try {
+                            return stream.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(stream.finish())));
+        });
+    }
+
+    private class GameStream {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final IntConsumer onGameCount;
+
+        // Field names of the enclosing containers, "" for the root and array elements
+        private final Deque<String> path = new ArrayDeque<>();
+        private String fieldName;
+
+        private TokenBuffer currentGame;
+        private int currentGameDepth;
+
+        GameStream(IntConsumer onGameCount) {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.onGameCount = onGameCount;
+        }
+
+        List<SteamGamesResponseDTO.Game> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<SteamGamesResponseDTO.Game> finish() {
+            feeder.endOfInput();
+            try (parser) {
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<SteamGamesResponseDTO.Game> drain() throws IOException {
+            List<SteamGamesResponseDTO.Game> games = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (currentGame != null) {
+                    currentGame.copyCurrentEvent(parser);
+                    if (token.isStructStart()) {
+                        currentGameDepth++;
+                    } else if (token.isStructEnd() && --currentGameDepth == 0) {
+                        games.add(gameReader.readValue(currentGame.asParser(objectMapper)));
+                        currentGame = null;
+                    }
+                    continue;
+                }
+
+                switch (token) {
+                    case FIELD_NAME -> fieldName = parser.currentName();
+                    case START_OBJECT -> {
+                        if (isInGamesArray()) {
+                            currentGame = new TokenBuffer(parser);
+                            currentGame.copyCurrentEvent(parser);
+                            currentGameDepth = 1;
+                        } else {
+                            enterContainer();
+                        }
+                    }
+                    case START_ARRAY -> enterContainer();
+                    case END_OBJECT, END_ARRAY -> path.pop();
+                    case VALUE_NUMBER_INT -> {
+                        if ("game_count".equals(fieldName) && isInResponse()) {
+                            onGameCount.accept(parser.getIntValue());
+                        }
+                        fieldName = null;
+                    }
+                    default -> fieldName = null;
+                }
+            }
+            return games;
+        }
+
+        private void enterContainer() {
+            path.push(fieldName != null ? fieldName : "");
+            fieldName = null;
+        }
+
+        private boolean isInResponse() {
+            return path.size() == 2 && "response".equals(path.peek());
+        }
+
+        private boolean isInGamesArray() {
+            if (path.size() != 3) {
+                return false;
+            }
+            Iterator<String> names = path.iterator();
+            return "games".equals(names.next()) && "response".equals(names.next());
+        }
+    }
+}
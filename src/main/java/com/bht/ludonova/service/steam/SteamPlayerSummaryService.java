@@ -0,0 +1,261 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamApiResponseDTO;
+import com.bht.ludonova.exception.SteamAuthenticationException;
+import com.bht.ludonova.model.SteamUser;
+import com.bht.ludonova.repository.SteamUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up Steam persona data through {@code GetPlayerSummaries}, which accepts up to 100
+ * steam ids per call. Concurrent lookups are collected for a short window and sent as one
+ * batched request, results are cached for {@code steam.player-summary.cache-ttl} (at most
+ * {@code steam.player-summary.cache-max-size} of them), and the stored {@code steam_users}
+ * rows are refreshed in batches on a schedule.
+ */
+@Slf4j
+@Service
+public class SteamPlayerSummaryService {
+    static final int MAX_IDS_PER_CALL = 100;
+
+    @Value("${steam.api.key}")
+    private String steamApiKey;
+
+    private final WebClient steamApiClient;
+    private final SteamApiQuota steamApiQuota;
+    private final SteamUserRepository steamUserRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration batchWindow;
+    private final Duration lookupTimeout;
+    private final boolean refreshEnabled;
+
+    private final Cache<String, SteamUser> cache;
+    private final Map<String, Sinks.One<SteamUser>> inFlight = new ConcurrentHashMap<>();
+    private final Sinks.Many<String> lookups = Sinks.many().unicast().onBackpressureBuffer();
+    private Disposable batcher;
+
+    public SteamPlayerSummaryService(
+            SteamApiQuota steamApiQuota,
+            SteamUserRepository steamUserRepository,
+            TransactionTemplate transactionTemplate,
+            ReactorClientHttpConnector steamLoginConnector,
+            @Value("${steam.api.base-url:https://api.steampowered.com}") String steamApiBaseUrl,
+            @Value("${steam.player-summary.cache-ttl:PT6H}") Duration cacheTtl,
+            @Value("${steam.player-summary.cache-max-size:10000}") long cacheMaxSize,
+            @Value("${steam.player-summary.batch-window:PT0.05S}") Duration batchWindow,
+            @Value("${steam.player-summary.lookup-timeout:PT10S}") Duration lookupTimeout,
+            @Value("${steam.player-summary.refresh-enabled:true}") boolean refreshEnabled) {
+        this.steamApiQuota = steamApiQuota;
+        this.steamUserRepository = steamUserRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchWindow = batchWindow;
+        this.lookupTimeout = lookupTimeout;
+        this.refreshEnabled = refreshEnabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .build();
+        // Lookups sit on the login path, so they share its bounded pool and timeouts
+        this.steamApiClient = WebClient.builder()
+                .baseUrl(steamApiBaseUrl)
+                .clientConnector(steamLoginConnector)
+                .build();
+    }
+
+    @PostConstruct
+    void startBatcher() {
+        batcher = lookups.asFlux()
+                .bufferTimeout(MAX_IDS_PER_CALL, batchWindow)
+                .flatMap(this::resolveBatch)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stopBatcher() {
+        batcher.dispose();
+    }
+
+    /**
+     * Returns the player summary for a single steam id, served from the cache when fresh and
+     * otherwise batched together with other lookups arriving within the batch window.
+     *
+     * @throws SteamAuthenticationException if Steam does not know the id or the lookup fails
+     */
+    public SteamUser getPlayerSummary(String steamId) {
+        SteamUser summary;
+        try {
+            summary = lookup(steamId).block(lookupTimeout);
+        } catch (RuntimeException e) {
+            log.error("Error fetching Steam user details for {}", steamId, e);
+            throw new SteamAuthenticationException("Failed to fetch Steam user details");
+        }
+        if (summary == null) {
+            throw new SteamAuthenticationException("Failed to fetch Steam user details");
+        }
+        return summary;
+    }
+
+    public Mono<SteamUser> lookup(String steamId) {
+        SteamUser cached = cache.getIfPresent(steamId);
+        if (cached != null) {
+            return Mono.just(copyOf(cached));
+        }
+
+        // Only the first caller for an id enqueues it, everyone else waits on the same result
+        boolean[] created = {false};
+        Sinks.One<SteamUser> result = inFlight.computeIfAbsent(steamId, id -> {
+            created[0] = true;
+            return Sinks.one();
+        });
+        if (created[0]) {
+            lookups.emitNext(steamId, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        }
+        return result.asMono().map(SteamPlayerSummaryService::copyOf);
+    }
+
+    /**
+     * Walks all stored {@code steam_users} rows in batches of {@value #MAX_IDS_PER_CALL} ids,
+     * one {@code GetPlayerSummaries} call per batch, and writes back the rows that changed.
+     */
+    @Scheduled(fixedDelayString = "${steam.player-summary.refresh-interval:PT6H}",
+            initialDelayString = "${steam.player-summary.refresh-initial-delay:PT10M}")
+    public void refreshStoredSummaries() {
+        if (!refreshEnabled) {
+            return;
+        }
+        int checked = 0;
+        int updated = 0;
+        String after = "";
+        List<String> steamIds;
+        while (!(steamIds = steamUserRepository.findSteamIdsAfter(after, MAX_IDS_PER_CALL)).isEmpty()) {
+            after = steamIds.get(steamIds.size() - 1);
+            try {
+                steamApiQuota.acquire();
+                Map<String, SteamUser> summaries = fetchSummaries(steamIds).block(lookupTimeout);
+                if (summaries != null) {
+                    // Refreshes cached entries without pulling every stored user into the cache
+                    summaries.values().forEach(summary -> cache.asMap().replace(summary.getSteamId(), summary));
+                    updated += persist(summaries.values());
+                }
+                checked += steamIds.size();
+            } catch (SteamAuthenticationException e) {
+                log.warn("Stopping Steam player summary refresh after {} users: {}", checked, e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh Steam player summaries after {}: {}", after, e.getMessage());
+            }
+        }
+        log.info("Refreshed Steam player summaries: {} checked, {} updated", checked, updated);
+    }
+
+    private Mono<Void> resolveBatch(List<String> steamIds) {
+        steamApiQuota.record();
+        // The sinks this batch has to settle; a later lookup of the same id gets a new one
+        Map<String, Sinks.One<SteamUser>> pending = new HashMap<>();
+        steamIds.forEach(steamId -> {
+            Sinks.One<SteamUser> result = inFlight.get(steamId);
+            if (result != null) {
+                pending.put(steamId, result);
+            }
+        });
+        return fetchSummaries(steamIds)
+                .doOnNext(summaries -> pending.forEach((steamId, result) -> {
+                    SteamUser summary = summaries.get(steamId);
+                    // Cache before releasing the in-flight slot so a racing lookup never refetches
+                    if (summary != null) {
+                        cache(summary);
+                    }
+                    inFlight.remove(steamId, result);
+                    if (summary != null) {
+                        result.tryEmitValue(summary);
+                    } else {
+                        result.tryEmitEmpty();
+                    }
+                }))
+                .onErrorResume(e -> {
+                    log.error("Batched Steam player summary lookup for {} ids failed", steamIds.size(), e);
+                    pending.forEach((steamId, result) -> {
+                        inFlight.remove(steamId, result);
+                        result.tryEmitError(e);
+                    });
+                    return Mono.empty();
+                })
+                // An empty 200 or a cancellation settles nothing above; never leave a sink behind
+                .doFinally(signal -> pending.forEach((steamId, result) -> {
+                    inFlight.remove(steamId, result);
+                    result.tryEmitEmpty();
+                }))
+                .then();
+    }
+
+    private Mono<Map<String, SteamUser>> fetchSummaries(Collection<String> steamIds) {
+        return steamApiClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/ISteamUser/GetPlayerSummaries/v2/")
+                        .queryParam("key", steamApiKey)
+                        .queryParam("steamids", String.join(",", steamIds))
+                        .build())
+                .retrieve()
+                .bodyToMono(SteamApiResponseDTO.class)
+                .map(dto -> {
+                    Map<String, SteamUser> summaries = new HashMap<>();
+                    if (dto.getResponse() != null && dto.getResponse().getPlayers() != null) {
+                        dto.getResponse().getPlayers().forEach(player ->
+                                summaries.put(player.getSteamId(), toSteamUser(player)));
+                    }
+                    return summaries;
+                });
+    }
+
+    private int persist(Collection<SteamUser> summaries) {
+        Integer updated = transactionTemplate.execute(status -> summaries.stream()
+                .mapToInt(summary -> steamUserRepository.updateSummary(
+                        summary.getSteamId(), summary.getPersonaName(),
+                        summary.getProfileUrl(), summary.getAvatarUrl()))
+                .sum());
+        return updated != null ? updated : 0;
+    }
+
+    private void cache(SteamUser summary) {
+        cache.put(summary.getSteamId(), summary);
+    }
+
+    private static SteamUser toSteamUser(SteamApiResponseDTO.Player player) {
+        SteamUser steamUser = new SteamUser();
+        steamUser.setSteamId(player.getSteamId());
+        steamUser.setPersonaName(player.getPersonaName());
+        steamUser.setProfileUrl(player.getProfileUrl());
+        steamUser.setAvatarUrl(player.getAvatarUrl());
+        return steamUser;
+    }
+
+    // Callers may attach the result to a new entity graph, never hand out the cached instance
+    private static SteamUser copyOf(SteamUser summary) {
+        SteamUser copy = new SteamUser();
+        copy.setSteamId(summary.getSteamId());
+        copy.setPersonaName(summary.getPersonaName());
+        copy.setProfileUrl(summary.getProfileUrl());
+        copy.setAvatarUrl(summary.getAvatarUrl());
+        return copy;
+    }
+}
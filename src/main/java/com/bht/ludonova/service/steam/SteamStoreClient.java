@@ -0,0 +1,50 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamAppDetailsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Client for the public Steam store API. The base url is configurable through
+ * {@code steam.store.base-url} so a stub server can stand in for the store.
+ */
+@Component
+public class SteamStoreClient {
+    private static final ParameterizedTypeReference<Map<String, SteamAppDetailsDTO>> APP_DETAILS_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient storeClient;
+
+    public SteamStoreClient(@Value("${steam.store.base-url:https://store.steampowered.com}") String baseUrl) {
+        this.storeClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader("User-Agent", "LudoNova")
+                .build();
+    }
+
+    /**
+     * Fetches the store page data for one app. Completes empty when the store has no page
+     * for the app, which is the case for delisted games, tools and many demos.
+     */
+    public Mono<SteamAppDetailsDTO.AppData> fetchAppDetails(String appId) {
+        return storeClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/appdetails")
+                        .queryParam("appids", appId)
+                        .queryParam("l", "english")
+                        .build())
+                .retrieve()
+                .bodyToMono(APP_DETAILS_TYPE)
+                .flatMap(response -> {
+                    SteamAppDetailsDTO details = response.get(appId);
+                    return details != null && details.isSuccess() && details.getData() != null
+                            ? Mono.just(details.getData())
+                            : Mono.empty();
+                });
+    }
+}
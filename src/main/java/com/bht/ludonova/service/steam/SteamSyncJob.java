@@ -0,0 +1,79 @@
+package com.bht.ludonova.service.steam;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-memory state of one background Steam library sync.
+ */
+@Getter
+public class SteamSyncJob implements SteamSyncProgress {
+    public enum Phase {
+        QUEUED,
+        FETCHING,
+        SYNCING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final Instant queuedAt = Instant.now();
+    private final SteamSyncResult result = new SteamSyncResult();
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile Integer totalGames;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public SteamSyncJob(Long userId) {
+        this.userId = userId;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        phase = Phase.FETCHING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        phase = Phase.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        phase = Phase.FAILED;
+    }
+
+    @Override
+    public void onLibraryFetched(int gameCount) {
+        totalGames = gameCount;
+        phase = Phase.SYNCING;
+    }
+
+    @Override
+    public synchronized void onChunkSynced(SteamSyncResult chunkResult) {
+        result.add(chunkResult);
+    }
+
+    public synchronized SteamSyncResult snapshot() {
+        SteamSyncResult copy = new SteamSyncResult();
+        copy.add(result);
+        return copy;
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.COMPLETED || phase == Phase.FAILED;
+    }
+
+    public Duration getDuration() {
+        if (startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+}
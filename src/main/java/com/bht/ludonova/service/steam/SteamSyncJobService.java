@@ -0,0 +1,138 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamSyncJobDTO;
+import com.bht.ludonova.exception.SteamAuthenticationException;
+import com.bht.ludonova.model.User;
+import com.bht.ludonova.repository.UserRepository;
+import com.bht.ludonova.service.SteamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs Steam library syncs in the background. At most one sync is active per user;
+ * submitting while one is queued or running returns the existing job.
+ */
+@Slf4j
+@Service
+public class SteamSyncJobService {
+    private final SteamService steamService;
+    private final UserRepository userRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration jobRetention;
+
+    private final Map<String, SteamSyncJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, SteamSyncJob> activeJobsByUser = new ConcurrentHashMap<>();
+
+    public SteamSyncJobService(
+            SteamService steamService,
+            UserRepository userRepository,
+            @Qualifier("steamSyncExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${steam.sync.job-retention:1h}") Duration jobRetention) {
+        this.steamService = steamService;
+        this.userRepository = userRepository;
+        this.executor = executor;
+        this.jobRetention = jobRetention;
+    }
+
+    /**
+     * @throws TaskRejectedException if the sync queue is full
+     */
+    public SteamSyncJob submit(User user) {
+        if (user.getSteamUser() == null) {
+            throw new SteamAuthenticationException("User is not connected to Steam");
+        }
+        evictExpiredJobs();
+
+        SteamSyncJob candidate = new SteamSyncJob(user.getId());
+        SteamSyncJob job = activeJobsByUser.computeIfAbsent(user.getId(), id -> candidate);
+        if (job != candidate) {
+            log.info("Reusing running Steam sync job {} for user {}", job.getId(), user.getUsername());
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(user, job));
+        } catch (TaskRejectedException e) {
+            log.warn("Steam sync queue is full, rejecting sync for user {}", user.getUsername());
+            activeJobsByUser.remove(user.getId(), job);
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("Queued Steam sync job {} for user {}", job.getId(), user.getUsername());
+        return job;
+    }
+
+    /**
+     * Whether a sync submitted now would start right away. Background work checks this so it
+     * never fills the queue that user-triggered syncs rely on.
+     */
+    public boolean hasIdleWorker() {
+        return executor.getActiveCount() < executor.getMaxPoolSize()
+                && executor.getThreadPoolExecutor().getQueue().isEmpty();
+    }
+
+    public Optional<SteamSyncJob> findJob(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getUserId().equals(userId));
+    }
+
+    public SteamSyncJobDTO toDTO(SteamSyncJob job) {
+        SteamSyncResult progress = job.snapshot();
+        return SteamSyncJobDTO.builder()
+                .jobId(job.getId())
+                .phase(job.getPhase().name())
+                .totalGames(job.getTotalGames())
+                .processed(progress.getProcessed())
+                .created(progress.getCreated())
+                .updated(progress.getUpdated())
+                .unchanged(progress.getUnchanged())
+                .failed(progress.getFailed())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .durationMs(job.getDuration().toMillis())
+                .error(job.getError())
+                .build();
+    }
+
+    private void run(User user, SteamSyncJob job) {
+        job.start();
+        boolean failed = false;
+        try {
+            userRepository.recordSteamSyncAttempt(user.getId());
+            steamService.syncSteamLibrary(user, job);
+            job.complete();
+        } catch (Exception e) {
+            failed = true;
+            log.error("Steam sync job {} for user {} failed", job.getId(), user.getUsername(), e);
+            job.fail(e.getMessage());
+        } finally {
+            recordOutcome(user, failed);
+            activeJobsByUser.remove(user.getId(), job);
+        }
+    }
+
+    // The resync scheduler backs off from users whose syncs keep failing
+    private void recordOutcome(User user, boolean failed) {
+        try {
+            userRepository.recordSteamSyncOutcome(user.getId(), failed);
+        } catch (RuntimeException e) {
+            log.warn("Could not record Steam sync outcome for user {}: {}", user.getUsername(), e.getMessage());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bht.ludonova.service.steam;
+
+/**
+ * Callback used by the Steam library sync to report how far it got.
+ */
+public interface SteamSyncProgress {
+    SteamSyncProgress NONE = new SteamSyncProgress() {
+    };
+
+    default void onLibraryFetched(int gameCount) {
+    }
+
+    default void onChunkSynced(SteamSyncResult chunkResult) {
+    }
+}
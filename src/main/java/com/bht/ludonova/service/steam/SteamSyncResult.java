@@ -0,0 +1,37 @@
+package com.bht.ludonova.service.steam;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+public class SteamSyncResult {
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int failed;
+
+    // Only tracked per chunk, so the engine can leave failed games out of the fingerprint
+    @ToString.Exclude
+    private final Set<Long> failedAppIds = new HashSet<>();
+
+    public int getProcessed() {
+        return created + updated + unchanged + failed;
+    }
+
+    public void markFailed(Long appId) {
+        failed++;
+        if (appId != null) {
+            failedAppIds.add(appId);
+        }
+    }
+
+    public void add(SteamSyncResult other) {
+        created += other.created;
+        updated += other.updated;
+        unchanged += other.unchanged;
+        failed += other.failed;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bht.ludonova.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces game titles to a comparison key that is stable across catalog sources:
+ * case, accents, trademark symbols, punctuation and a leading article are ignored.
+ * Edition suffixes are deliberately kept, "Skyrim" and "Skyrim Special Edition" are
+ * different products.
+ * <p>
+ * The {@code normalize_game_title} SQL function repeats these steps for the trigram search
+ * column; change both together.
+ */
+public final class TitleNormalizer {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TRADEMARKS = Pattern.compile("[\\u2122\\u00AE\\u00A9]");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern LEADING_ARTICLE = Pattern.compile("^the ");
+
+    private TitleNormalizer() {
+    }
+
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String key = TRADEMARKS.matcher(title).replaceAll("");
+        key = DIACRITICS.matcher(Normalizer.normalize(key, Normalizer.Form.NFKD)).replaceAll("");
+        key = key.toLowerCase(Locale.ROOT).replace("&", " and ");
+        key = NON_ALPHANUMERIC.matcher(key).replaceAll(" ").trim();
+        return LEADING_ARTICLE.matcher(key).replaceFirst("");
+    }
+}
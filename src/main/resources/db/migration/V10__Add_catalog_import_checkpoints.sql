@@ -0,0 +1,11 @@
+-- Progress of the background RAWG catalog import, one row per metacritic tier
+CREATE TABLE catalog_import_checkpoints
+(
+    tier           VARCHAR(20)  PRIMARY KEY,
+    next_page      INTEGER      NOT NULL DEFAULT 1,
+    -- RAWG id of the last game stored, used to skip games that shifted across a page boundary
+    last_api_id    VARCHAR(255),
+    imported_count INTEGER      NOT NULL DEFAULT 0,
+    completed_at   TIMESTAMP,
+    updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,5 @@
+-- Lets the refresh scheduler find stale RAWG games without scanning the whole catalog
+CREATE INDEX idx_games_rawg_last_updated ON games (rawg_last_updated NULLS FIRST) WHERE source = 'RAWG';
+
+-- Popularity lookups count instances per game, the unique key leads with user_id
+CREATE INDEX idx_game_instances_game ON game_instances (game_id);
@@ -0,0 +1,74 @@
+-- Weighted full-text document per game: title (A), genres (B), description (C).
+-- The 'simple' configuration keeps title words unstemmed so prefix queries behave predictably.
+ALTER TABLE games ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION game_search_vector(p_game_id BIGINT, p_title TEXT, p_description TEXT) RETURNS tsvector AS
+$$
+SELECT setweight(to_tsvector('simple', coalesce(p_title, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce((SELECT string_agg(genre, ' ')
+                                                        FROM game_genres
+                                                        WHERE game_id = p_game_id), '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION games_search_vector_trigger() RETURNS trigger AS
+$$
+BEGIN
+    NEW.search_vector := game_search_vector(NEW.id, NEW.title, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_games_search_vector
+    BEFORE INSERT OR UPDATE OF title, description ON games
+    FOR EACH ROW
+EXECUTE FUNCTION games_search_vector_trigger();
+
+-- Genre changes re-index their games once per statement, so bulk genre inserts stay set-based
+CREATE OR REPLACE FUNCTION game_genres_refresh_new_rows() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE games g
+    SET search_vector = game_search_vector(g.id, g.title, g.description)
+    WHERE g.id IN (SELECT DISTINCT game_id FROM new_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION game_genres_refresh_old_rows() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE games g
+    SET search_vector = game_search_vector(g.id, g.title, g.description)
+    WHERE g.id IN (SELECT DISTINCT game_id FROM old_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_game_genres_insert_search_vector
+    AFTER INSERT ON game_genres
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION game_genres_refresh_new_rows();
+
+CREATE TRIGGER trg_game_genres_delete_search_vector
+    AFTER DELETE ON game_genres
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION game_genres_refresh_old_rows();
+
+CREATE TRIGGER trg_game_genres_update_new_search_vector
+    AFTER UPDATE ON game_genres
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION game_genres_refresh_new_rows();
+
+CREATE TRIGGER trg_game_genres_update_old_search_vector
+    AFTER UPDATE ON game_genres
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION game_genres_refresh_old_rows();
+
+UPDATE games SET search_vector = game_search_vector(id, title, description);
+
+CREATE INDEX idx_games_search_vector ON games USING GIN (search_vector);
@@ -0,0 +1,14 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- SQL counterpart of TitleNormalizer, minus accent folding: lower case, '&' as 'and',
+-- punctuation collapsed to single spaces and a leading article dropped
+CREATE OR REPLACE FUNCTION normalize_game_title(title TEXT) RETURNS TEXT AS
+$$
+SELECT regexp_replace(
+               btrim(regexp_replace(replace(lower(coalesce(title, '')), '&', ' and '), '[^a-z0-9]+', ' ', 'g')),
+               '^the ', '');
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+ALTER TABLE games ADD COLUMN normalized_title TEXT GENERATED ALWAYS AS (normalize_game_title(title)) STORED;
+
+CREATE INDEX idx_games_normalized_title_trgm ON games USING GIN (normalized_title gin_trgm_ops);
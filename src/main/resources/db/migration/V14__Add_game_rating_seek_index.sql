@@ -0,0 +1,2 @@
+-- Keyset pagination seeks on (COALESCE(rating, -1), id), unrated games sorting last
+CREATE INDEX idx_games_rating_seek ON games ((COALESCE(rating, -1)), id);
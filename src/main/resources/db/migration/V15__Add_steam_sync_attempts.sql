@@ -0,0 +1,3 @@
+-- Background resync bookkeeping: failed syncs write no fingerprint, so attempts are tracked per user
+ALTER TABLE users ADD COLUMN steam_sync_attempted_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN steam_sync_failures INTEGER NOT NULL DEFAULT 0;
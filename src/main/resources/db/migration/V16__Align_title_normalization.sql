@@ -0,0 +1,28 @@
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE because its dictionary could change; pinning the dictionary makes
+-- it safe for the generated column and its index
+CREATE OR REPLACE FUNCTION immutable_unaccent(value TEXT) RETURNS TEXT AS
+$$
+SELECT public.unaccent('public.unaccent'::regdictionary, value);
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- Must follow TitleNormalizer step for step: trademark symbols removed before accents are
+-- folded (unaccent would spell them out), then lower case, '&' as 'and', punctuation
+-- collapsed to single spaces and a leading article dropped
+CREATE OR REPLACE FUNCTION normalize_game_title(title TEXT) RETURNS TEXT AS
+$$
+SELECT regexp_replace(
+               btrim(regexp_replace(
+                       replace(lower(immutable_unaccent(regexp_replace(coalesce(title, ''), '[™®©]', '', 'g'))),
+                               '&', ' and '),
+                       '[^a-z0-9]+', ' ', 'g')),
+               '^the ', '');
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+-- A stored generated column is not recomputed when its function changes, so rebuild it
+DROP INDEX idx_games_normalized_title_trgm;
+ALTER TABLE games DROP COLUMN normalized_title;
+ALTER TABLE games ADD COLUMN normalized_title TEXT GENERATED ALWAYS AS (normalize_game_title(title)) STORED;
+
+CREATE INDEX idx_games_normalized_title_trgm ON games USING GIN (normalized_title gin_trgm_ops);
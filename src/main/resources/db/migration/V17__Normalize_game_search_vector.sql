@@ -0,0 +1,12 @@
+-- Index the same normalized words GameService.toPrefixTsQuery searches for, so accents,
+-- trademark symbols, '&' and hyphenated titles match the way the query spells them
+CREATE OR REPLACE FUNCTION game_search_vector(p_game_id BIGINT, p_title TEXT, p_description TEXT) RETURNS tsvector AS
+$$
+SELECT setweight(to_tsvector('simple', normalize_game_title(p_title)), 'A')
+           || setweight(to_tsvector('simple', normalize_game_title((SELECT string_agg(genre, ' ')
+                                                                    FROM game_genres
+                                                                    WHERE game_id = p_game_id))), 'B')
+           || setweight(to_tsvector('simple', normalize_game_title(p_description)), 'C');
+$$ LANGUAGE sql STABLE;
+
+UPDATE games SET search_vector = game_search_vector(id, title, description);
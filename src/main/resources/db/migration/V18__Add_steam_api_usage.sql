@@ -0,0 +1,7 @@
+-- Steam Web API calls per UTC day, so the daily key quota survives restarts and is shared by all instances
+CREATE TABLE steam_api_usage
+(
+    usage_day  DATE PRIMARY KEY,
+    calls      BIGINT    NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
@@ -0,0 +1,8 @@
+-- Compact snapshot of each user's last synced Steam library (appid -> playtime, last played)
+CREATE TABLE steam_library_fingerprints
+(
+    user_id     BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    fingerprint BYTEA     NOT NULL,
+    game_count  INTEGER   NOT NULL,
+    synced_at   TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,5 @@
+-- Set once the enrichment pipeline has looked up a Steam game, whether or not metadata was found
+ALTER TABLE games ADD COLUMN metadata_enriched_at TIMESTAMP;
+
+CREATE INDEX idx_games_steam_unenriched ON games (id)
+    WHERE source = 'STEAM' AND metadata_enriched_at IS NULL;
@@ -0,0 +1,11 @@
+-- External ids that resolve to a game from another source, e.g. a Steam app id mapped onto the RAWG row
+CREATE TABLE game_source_aliases
+(
+    source      VARCHAR(20)  NOT NULL,
+    external_id VARCHAR(255) NOT NULL,
+    game_id     BIGINT       NOT NULL REFERENCES games (id) ON DELETE CASCADE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (source, external_id)
+);
+
+CREATE INDEX idx_game_source_aliases_game ON game_source_aliases (game_id);
@@ -0,0 +1,55 @@
+-- Append-only playtime changes observed by Steam syncs, partitioned by month
+CREATE TABLE playtime_deltas
+(
+    user_id       BIGINT    NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    game_id       BIGINT    NOT NULL REFERENCES games (id) ON DELETE CASCADE,
+    recorded_at   TIMESTAMP NOT NULL,
+    delta_minutes INTEGER   NOT NULL,
+    total_minutes INTEGER   NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+-- Catches rows outside the maintained monthly partitions
+CREATE TABLE playtime_deltas_default PARTITION OF playtime_deltas DEFAULT;
+
+-- Rows arrive in time order, so a BRIN index stays tiny and still prunes well
+CREATE INDEX idx_playtime_deltas_recorded_at ON playtime_deltas USING BRIN (recorded_at);
+CREATE INDEX idx_playtime_deltas_user_game ON playtime_deltas (user_id, game_id);
+
+-- Creates the partition for the month containing the given date, if it does not exist yet
+CREATE OR REPLACE FUNCTION create_playtime_partition(month_start DATE) RETURNS VOID AS
+$$
+DECLARE
+    lower_bound    DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'playtime_deltas_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF playtime_deltas FOR VALUES FROM (%L) TO (%L)',
+            partition_name, lower_bound, (lower_bound + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_playtime_partition(CURRENT_DATE);
+SELECT create_playtime_partition((CURRENT_DATE + INTERVAL '1 month')::DATE);
+
+-- Rollups maintained in the same transaction as the deltas
+CREATE TABLE playtime_daily
+(
+    user_id BIGINT  NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    game_id BIGINT  NOT NULL REFERENCES games (id) ON DELETE CASCADE,
+    day     DATE    NOT NULL,
+    minutes INTEGER NOT NULL,
+    PRIMARY KEY (user_id, day, game_id)
+);
+
+CREATE INDEX idx_playtime_daily_game_day ON playtime_daily (game_id, day);
+
+CREATE TABLE playtime_weekly
+(
+    user_id    BIGINT  NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    game_id    BIGINT  NOT NULL REFERENCES games (id) ON DELETE CASCADE,
+    week_start DATE    NOT NULL,
+    minutes    INTEGER NOT NULL,
+    PRIMARY KEY (user_id, week_start, game_id)
+);
+
+CREATE INDEX idx_playtime_weekly_game_week ON playtime_weekly (game_id, week_start);
@@ -0,0 +1,63 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic Steam libraries and the rows a sync needs to exist beforehand.
+ */
+public final class SteamLibraryFixtures {
+    private static final long FIRST_APP_ID = 100_000L;
+    private static final long LAST_PLAYED_EPOCH = 1_700_000_000L;
+
+    private SteamLibraryFixtures() {
+    }
+
+    /**
+     * A library of {@code size} distinct games with deterministic app ids, names and playtimes.
+     */
+    public static List<SteamGamesResponseDTO.Game> library(int size) {
+        List<SteamGamesResponseDTO.Game> games = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            games.add(game(FIRST_APP_ID + i, "Synthetic Game " + i, 10 * i, LAST_PLAYED_EPOCH + i));
+        }
+        return games;
+    }
+
+    public static SteamGamesResponseDTO.Game game(long appId, String name, int playtimeMinutes, long lastPlayed) {
+        SteamGamesResponseDTO.Game game = new SteamGamesResponseDTO.Game();
+        game.setAppId(appId);
+        game.setName(name);
+        game.setPlaytimeMinutes(playtimeMinutes);
+        game.setLastPlayedTimestamp(lastPlayed);
+        return game;
+    }
+
+    /**
+     * Copy of the library in which every {@code step}-th game was played for {@code minutes} more.
+     */
+    public static List<SteamGamesResponseDTO.Game> playedEvery(List<SteamGamesResponseDTO.Game> library,
+                                                               int step, int minutes) {
+        List<SteamGamesResponseDTO.Game> games = new ArrayList<>(library.size());
+        for (int i = 0; i < library.size(); i++) {
+            SteamGamesResponseDTO.Game game = library.get(i);
+            games.add(i % step == 0
+                    ? game(game.getAppId(), game.getName(), game.getPlaytimeMinutes() + minutes,
+                    game.getLastPlayedTimestamp() + 3600)
+                    : game);
+        }
+        return games;
+    }
+
+    /**
+     * Empties the catalog and libraries and returns the id of a freshly created user.
+     */
+    public static Long resetAndCreateUser(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("TRUNCATE users, games RESTART IDENTITY CASCADE");
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES ('player', 'secret') RETURNING id", Long.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.PostgresContainerTest;
+import com.bht.ludonova.dto.steam.SteamGamesResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = SteamLibrarySyncTestConfiguration.class)
+@TestPropertySource(properties = "steam.sync.chunk-size=50")
+class SteamLibrarySyncEngineTest extends PostgresContainerTest {
+    private static final int LIBRARY_SIZE = 120;
+
+    @Autowired
+    private SteamLibrarySyncEngine syncEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = SteamLibraryFixtures.resetAndCreateUser(jdbcTemplate);
+    }
+
+    @Test
+    void createsNewGamesChunkByChunk() {
+        List<SteamSyncResult> chunks = new ArrayList<>();
+
+        SteamSyncResult result = sync(SteamLibraryFixtures.library(LIBRARY_SIZE), chunks::add);
+
+        assertThat(result.getCreated()).isEqualTo(LIBRARY_SIZE);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getFailed()).isZero();
+        assertThat(chunks).extracting(SteamSyncResult::getCreated).containsExactly(50, 50, 20);
+        assertThat(count("SELECT COUNT(*) FROM games WHERE source = 'STEAM'")).isEqualTo(LIBRARY_SIZE);
+        assertThat(count("SELECT COUNT(*) FROM game_instances WHERE user_id = ?", userId)).isEqualTo(LIBRARY_SIZE);
+        assertThat(count("SELECT game_count FROM steam_library_fingerprints WHERE user_id = ?", userId))
+                .isEqualTo(LIBRARY_SIZE);
+    }
+
+    @Test
+    void skipsUnchangedGamesWithoutTouchingTheDatabase() {
+        List<SteamGamesResponseDTO.Game> library = SteamLibraryFixtures.library(LIBRARY_SIZE);
+        sync(library, null);
+        // Rows the resync would overwrite if it wrote them at all
+        jdbcTemplate.update("UPDATE game_instances SET playtime_minutes = -1 WHERE user_id = ?", userId);
+
+        SteamSyncResult result = sync(library, null);
+
+        assertThat(result.getUnchanged()).isEqualTo(LIBRARY_SIZE);
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getUpdated()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM game_instances WHERE user_id = ? AND playtime_minutes = -1", userId))
+                .isEqualTo(LIBRARY_SIZE);
+        assertThat(count("SELECT COUNT(*) FROM playtime_deltas WHERE user_id = ?", userId)).isZero();
+    }
+
+    @Test
+    void updatesChangedGamesAndRecordsTheirPlaytime() {
+        List<SteamGamesResponseDTO.Game> library = SteamLibraryFixtures.library(LIBRARY_SIZE);
+        sync(library, null);
+
+        SteamSyncResult result = sync(SteamLibraryFixtures.playedEvery(library, 10, 30), null);
+
+        assertThat(result.getUpdated()).isEqualTo(LIBRARY_SIZE / 10);
+        assertThat(result.getUnchanged()).isEqualTo(LIBRARY_SIZE - LIBRARY_SIZE / 10);
+        assertThat(result.getCreated()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM playtime_deltas WHERE user_id = ? AND delta_minutes = 30", userId))
+                .isEqualTo(LIBRARY_SIZE / 10);
+        SteamGamesResponseDTO.Game played = library.get(10);
+        assertThat(count("""
+                SELECT i.playtime_minutes FROM game_instances i JOIN games g ON g.id = i.game_id
+                WHERE i.user_id = ? AND g.source = 'STEAM' AND g.api_id = ?
+                """, userId, played.getAppId().toString())).isEqualTo(played.getPlaytimeMinutes() + 30);
+    }
+
+    @Test
+    void addsGamesNewToALibraryAlreadySynced() {
+        List<SteamGamesResponseDTO.Game> library = SteamLibraryFixtures.library(LIBRARY_SIZE);
+        sync(library.subList(0, LIBRARY_SIZE - 5), null);
+
+        SteamSyncResult result = sync(library, null);
+
+        assertThat(result.getCreated()).isEqualTo(5);
+        assertThat(result.getUnchanged()).isEqualTo(LIBRARY_SIZE - 5);
+        assertThat(count("SELECT COUNT(*) FROM game_instances WHERE user_id = ?", userId)).isEqualTo(LIBRARY_SIZE);
+    }
+
+    @Test
+    void appendsTheAppIdWhenTheSlugIsTaken() {
+        // A different title, so the resolver never maps the Steam game onto this row
+        jdbcTemplate.update("INSERT INTO games (title, slug, api_id, source) VALUES ('Portal II', 'portal-2', '4200', 'RAWG')");
+
+        SteamSyncResult result = sync(List.of(SteamLibraryFixtures.game(620L, "Portal 2", 600, 1_700_000_000L)), null);
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT slug FROM games WHERE source = 'STEAM' AND api_id = '620'", String.class))
+                .isEqualTo("portal-2-620");
+    }
+
+    private SteamSyncResult sync(List<SteamGamesResponseDTO.Game> library, Consumer<SteamSyncResult> listener) {
+        SteamSyncProgress progress = listener == null ? SteamSyncProgress.NONE : new SteamSyncProgress() {
+            @Override
+            public void onChunkSynced(SteamSyncResult chunkResult) {
+                listener.accept(chunkResult);
+            }
+        };
+        return syncEngine.sync(userId, Flux.fromIterable(library), progress);
+    }
+
+    private Integer count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bht.ludonova.service.steam;
+
+import com.bht.ludonova.repository.GameResolutionRepository;
+import com.bht.ludonova.repository.PlaytimeHistoryRepository;
+import com.bht.ludonova.repository.SteamLibraryBulkRepository;
+import com.bht.ludonova.service.catalog.GameEntityResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The beans a Steam library sync needs on top of a JDBC slice. Used in place of the
+ * application class, whose {@code @EnableJpaRepositories} a JDBC slice cannot satisfy.
+ */
+@Configuration
+@Import({SteamLibrarySyncEngine.class, SteamLibraryBulkRepository.class, GameResolutionRepository.class,
+        GameEntityResolver.class, PlaytimeHistoryRepository.class})
+public class SteamLibrarySyncTestConfiguration {
+}